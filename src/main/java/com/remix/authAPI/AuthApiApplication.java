@@ -1,13 +1,19 @@
 package com.remix.authAPI;
 
+import com.remix.authAPI.config.UserImportRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 
 @SpringBootApplication
 public class AuthApiApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(AuthApiApplication.class, args);
+		ConfigurableApplicationContext context = SpringApplication.run(AuthApiApplication.class, args);
+		// Import en ligne de commande (app.users.import.file) : arrêt avec le code de sortie de l'import
+		if (context.getBeanProvider(UserImportRunner.class).getIfAvailable() != null) {
+			System.exit(SpringApplication.exit(context));
+		}
 		System.out.println("Server is running on port 8080");
 	}
 
@@ -0,0 +1,141 @@
+package com.remix.authAPI.config;
+
+import com.remix.authAPI.exception.ServiceOverloadedException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exécute le hachage (encode/matches) sur un pool dédié borné, dimensionné sur le
+ * nombre de cœurs. Quand la file d'attente est pleine, la requête échoue
+ * immédiatement au lieu d'occuper un thread Tomcat avec du calcul BCrypt.
+ * L'attente du résultat est bornée : au-delà de {@code timeoutMillis}, la tâche est annulée
+ * et l'appelant reçoit la même réponse de surcharge.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final long timeoutMillis;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong totalQueueWaitNanos = new AtomicLong();
+    private final AtomicLong totalHashNanos = new AtomicLong();
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long retryAfterSeconds,
+                                  long timeoutMillis) {
+        this.delegate = delegate;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+            threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "password-hash-" + threadIndex.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T execute(Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                totalQueueWaitNanos.addAndGet(startedAt - submittedAt);
+                try {
+                    return task.call();
+                } finally {
+                    totalHashNanos.addAndGet(System.nanoTime() - startedAt);
+                    completed.incrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new ServiceOverloadedException("Service momentanément surchargé, veuillez réessayer", retryAfterSeconds);
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.incrementAndGet();
+            throw new ServiceOverloadedException("Service momentanément surchargé, veuillez réessayer", retryAfterSeconds);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Hachage du mot de passe interrompu", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Erreur lors du hachage du mot de passe", e.getCause());
+        }
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public long getTimedOutCount() {
+        return timedOut.get();
+    }
+
+    public double getAverageQueueWaitMillis() {
+        long count = completed.get();
+        return count == 0 ? 0 : totalQueueWaitNanos.get() / 1_000_000.0 / count;
+    }
+
+    public double getAverageHashMillis() {
+        long count = completed.get();
+        return count == 0 ? 0 : totalHashNanos.get() / 1_000_000.0 / count;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
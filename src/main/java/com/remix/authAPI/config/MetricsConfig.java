@@ -0,0 +1,98 @@
+package com.remix.authAPI.config;
+
+import com.remix.authAPI.services.EmailDispatcher;
+import com.remix.authAPI.services.InMemoryTwoFactorChallengeStore;
+import com.remix.authAPI.services.LoginRateLimiter;
+import com.remix.authAPI.services.SessionActivityBuffer;
+import com.remix.authAPI.services.SessionCache;
+import com.remix.authAPI.services.SessionExpiryEngine;
+import com.remix.authAPI.services.SessionRevocationList;
+import com.remix.authAPI.services.SlidingWindowRateLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Expose au registre Micrometer (et donc à /actuator/prometheus) les statistiques
+ * déjà tenues par les composants : lues à la collecte, sans coût sur le chemin des requêtes.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder authApiComponentMetrics(
+        BoundedPasswordEncoder passwordEncoder,
+        EmailDispatcher emailDispatcher,
+        SessionCache sessionCache,
+        SessionActivityBuffer activityBuffer,
+        SessionExpiryEngine expiryEngine,
+        SessionRevocationList revocationList,
+        LoginRateLimiter rateLimiter,
+        ObjectProvider<InMemoryTwoFactorChallengeStore> twoFactorStore
+    ) {
+        return registry -> {
+            gauge(registry, "auth.hashing.queue.depth", passwordEncoder, BoundedPasswordEncoder::getQueueDepth);
+            gauge(registry, "auth.hashing.active", passwordEncoder, BoundedPasswordEncoder::getActiveCount);
+            counter(registry, "auth.hashing.completed", passwordEncoder, BoundedPasswordEncoder::getCompletedCount);
+            counter(registry, "auth.hashing.rejected", passwordEncoder, BoundedPasswordEncoder::getRejectedCount);
+            counter(registry, "auth.hashing.timed-out", passwordEncoder, BoundedPasswordEncoder::getTimedOutCount);
+            gauge(registry, "auth.hashing.queue.wait.avg.ms", passwordEncoder, BoundedPasswordEncoder::getAverageQueueWaitMillis);
+            gauge(registry, "auth.hashing.duration.avg.ms", passwordEncoder, BoundedPasswordEncoder::getAverageHashMillis);
+
+            gauge(registry, "auth.mail.queue.depth", emailDispatcher, EmailDispatcher::getQueueDepth);
+            counter(registry, "auth.mail.sent", emailDispatcher, EmailDispatcher::getSentCount);
+            counter(registry, "auth.mail.failed", emailDispatcher, EmailDispatcher::getFailedCount);
+            counter(registry, "auth.mail.rejected", emailDispatcher, EmailDispatcher::getRejectedCount);
+            gauge(registry, "auth.mail.send.avg.ms", emailDispatcher, EmailDispatcher::getAverageSendMillis);
+            gauge(registry, "auth.mail.send.max.ms", emailDispatcher, EmailDispatcher::getMaxSendMillis);
+
+            gauge(registry, "auth.session.cache.size", sessionCache, SessionCache::size);
+            counter(registry, "auth.session.cache.hits", sessionCache, SessionCache::getHits);
+            counter(registry, "auth.session.cache.misses", sessionCache, SessionCache::getMisses);
+            counter(registry, "auth.session.cache.evictions", sessionCache, SessionCache::getEvictions);
+
+            gauge(registry, "auth.session.write-behind.pending", activityBuffer, SessionActivityBuffer::getPendingCount);
+            counter(registry, "auth.session.write-behind.avoided", activityBuffer, SessionActivityBuffer::getWritesAvoided);
+            counter(registry, "auth.session.write-behind.flushed", activityBuffer, SessionActivityBuffer::getWritesFlushed);
+            gauge(registry, "auth.session.write-behind.lag.ms", activityBuffer, SessionActivityBuffer::getLastFlushLagMillis);
+
+            gauge(registry, "auth.session.expiry.tracked", expiryEngine, SessionExpiryEngine::getTrackedCount);
+            counter(registry, "auth.session.expiry.expired", expiryEngine, SessionExpiryEngine::getExpired);
+            counter(registry, "auth.session.expiry.rescheduled", expiryEngine, SessionExpiryEngine::getRescheduled);
+
+            gauge(registry, "auth.session.revocations", revocationList, SessionRevocationList::size);
+
+            bindRateLimiter(registry, "ip", rateLimiter.getByClientIp());
+            bindRateLimiter(registry, "email", rateLimiter.getByEmail());
+
+            twoFactorStore.ifAvailable(store ->
+                gauge(registry, "auth.two-factor.pending", store, InMemoryTwoFactorChallengeStore::size));
+        };
+    }
+
+    private static void bindRateLimiter(MeterRegistry registry, String key, SlidingWindowRateLimiter limiter) {
+        Gauge.builder("auth.rate-limit.tracked-keys", limiter, SlidingWindowRateLimiter::getTrackedKeys)
+            .tag("key", key)
+            .register(registry);
+        FunctionCounter.builder("auth.rate-limit.rejected", limiter, SlidingWindowRateLimiter::getRejectedCount)
+            .tag("key", key)
+            .register(registry);
+        FunctionCounter.builder("auth.rate-limit.overflow", limiter, SlidingWindowRateLimiter::getOverflowCount)
+            .tag("key", key)
+            .register(registry);
+    }
+
+    private static <T> void gauge(MeterRegistry registry, String name, T source, ToDoubleFunction<T> value) {
+        Gauge.builder(name, source, value).register(registry);
+    }
+
+    private static <T> void counter(MeterRegistry registry, String name, T source, ToDoubleFunction<T> value) {
+        FunctionCounter.builder(name, source, value).register(registry);
+    }
+}
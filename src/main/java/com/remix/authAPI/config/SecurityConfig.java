@@ -1,11 +1,11 @@
 package com.remix.authAPI.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -24,6 +24,8 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/**", "/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
+                // Uniquement joignables sur le port de gestion (management.server.port), non exposé publiquement
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                 .anyRequest().authenticated()
             );
         
@@ -64,7 +66,16 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(
+        @Value("${app.security.hashing.strength:10}") int strength,
+        @Value("${app.security.hashing.threads:0}") int threads,
+        @Value("${app.security.hashing.queue-capacity:64}") int queueCapacity,
+        @Value("${app.security.hashing.retry-after-seconds:1}") long retryAfterSeconds,
+        @Value("${app.security.hashing.timeout-ms:5000}") long timeoutMillis
+    ) {
+        // 0 => un thread par cœur : BCrypt est purement CPU
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), poolSize, queueCapacity, retryAfterSeconds,
+            timeoutMillis);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.remix.authAPI.config;
+
+import com.remix.authAPI.dto.ImportReport;
+import com.remix.authAPI.services.UserImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Import en ligne de commande, puis arrêt de l'application :
+ * {@code java -jar authAPI.jar --spring.main.web-application-type=none --app.users.import.file=comptes.csv}
+ * (format déduit de l'extension, NDJSON sinon). Avec {@code --app.users.import.verification=SEND}, utiliser
+ * {@code app.mail.delivery=outbox} : la file mémoire est perdue à l'arrêt, la table email_outbox est relayée plus tard.
+ * Avec NONE (défaut), les comptes non vérifiés demandent leur lien par {@code POST /api/auth/resend-verification}.
+ * Code de sortie (rendu par {@link com.remix.authAPI.AuthApiApplication#main}) : 0, ou 2 si des lignes sont invalides.
+ */
+@Component
+@ConditionalOnProperty(name = "app.users.import.file")
+public class UserImportRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportRunner.class);
+
+    private final UserImportService userImportService;
+    private final Path file;
+    private final UserImportService.VerificationEmails verification;
+
+    private volatile int exitCode;
+
+    public UserImportRunner(
+        UserImportService userImportService,
+        @Value("${app.users.import.file}") String file,
+        @Value("${app.users.import.verification:NONE}") UserImportService.VerificationEmails verification
+    ) {
+        this.userImportService = userImportService;
+        this.file = Path.of(file);
+        this.verification = verification;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        ImportReport report;
+        try (InputStream input = Files.newInputStream(file)) {
+            report = userImportService.importUsers(input,
+                UserImportService.Format.detect(file.getFileName().toString()), verification);
+        }
+
+        log.info("Import de {} : {} lues, {} importées, {} doublons, {} invalides en {} s ({} lignes/s)",
+            file, report.read(), report.imported(), report.duplicates(), report.invalid(),
+            String.format("%.1f", report.seconds()), String.format("%.0f", report.rowsPerSecond()));
+        report.errors().forEach(error -> log.warn("Import de {} : {}", file, error));
+
+        exitCode = report.invalid() == 0 ? 0 : 2;
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+}
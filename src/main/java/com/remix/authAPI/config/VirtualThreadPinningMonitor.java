@@ -0,0 +1,126 @@
+package com.remix.authAPI.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Détecte les threads virtuels épinglés sur leur thread porteur (bloc {@code synchronized}
+ * ou appel natif pendant une opération bloquante) via l'événement JFR {@code jdk.VirtualThreadPinned}.
+ * Chaque épinglage est compté par origine (jdbc, mail, other) ; la première pile de chaque
+ * origine et chaque nouveau point d'appel sont journalisés.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "app.threads.pinning-monitor.enabled", havingValue = "true", matchIfMissing = true)
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    // Borne le nombre de points d'appel mémorisés pour la journalisation
+    private static final int MAX_REPORTED_SITES = 256;
+    private static final int LOGGED_FRAMES = 12;
+
+    enum Source { JDBC, MAIL, OTHER }
+
+    private final Duration threshold;
+    private final Timer[] pinned = new Timer[Source.values().length];
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(
+        MeterRegistry registry,
+        @Value("${app.threads.pinning-monitor.threshold-ms:20}") long thresholdMillis
+    ) {
+        this.threshold = Duration.ofMillis(thresholdMillis);
+        for (Source source : Source.values()) {
+            pinned[source.ordinal()] = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Durée pendant laquelle un thread virtuel a bloqué son thread porteur")
+                .tag("source", source.name().toLowerCase(Locale.ROOT))
+                .register(registry);
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        stream = new RecordingStream();
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, this::onPinned);
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+        Source source = classify(frames);
+        pinned[source.ordinal()].record(event.getDuration());
+
+        String site = firstApplicationFrame(frames);
+        if (reportedSites.size() < MAX_REPORTED_SITES && reportedSites.add(source + " " + site)) {
+            log.warn("Thread virtuel épinglé {} ms ({}), depuis {} :\n{}", event.getDuration().toMillis(),
+                source.name().toLowerCase(Locale.ROOT), site, frames.stream()
+                    .limit(LOGGED_FRAMES)
+                    .map(frame -> "\tat " + describe(frame))
+                    .collect(Collectors.joining("\n")));
+        }
+    }
+
+    static Source classify(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            Source source = classify(frame.getMethod().getType().getName());
+            if (source != Source.OTHER) {
+                return source;
+            }
+        }
+        return Source.OTHER;
+    }
+
+    static Source classify(String className) {
+        if (className.startsWith("org.postgresql.") || className.startsWith("com.zaxxer.hikari.")) {
+            return Source.JDBC;
+        }
+        if (className.startsWith("jakarta.mail.") || className.startsWith("org.eclipse.angus.mail.")
+            || className.startsWith("com.sun.mail.")) {
+            return Source.MAIL;
+        }
+        return Source.OTHER;
+    }
+
+    private static String firstApplicationFrame(List<RecordedFrame> frames) {
+        return frames.stream()
+            .filter(frame -> frame.getMethod().getType().getName().startsWith("com.remix.authAPI."))
+            .findFirst()
+            .or(() -> frames.stream().findFirst())
+            .map(VirtualThreadPinningMonitor::describe)
+            .orElse("?");
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -1,12 +1,29 @@
 package com.remix.authAPI.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.remix.authAPI.response.ResponseEnvelopeHttpMessageConverter;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ObjectMapper objectMapper;
+
+    public WebConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Avant le convertisseur Jackson générique : writer préconstruit pour l'enveloppe des réponses
+        converters.add(0, new ResponseEnvelopeHttpMessageConverter(objectMapper));
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
@@ -5,7 +5,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.HttpStatus;
 
+import com.remix.authAPI.dto.UserSummary;
+import com.remix.authAPI.exception.ServiceOverloadedException;
+import com.remix.authAPI.exception.TooManyRequestsException;
 import com.remix.authAPI.response.ResponseHandler;
+import com.remix.authAPI.services.LoginRateLimiter;
 import com.remix.authAPI.services.UserService;
 import com.remix.authAPI.entity.User;
 
@@ -16,6 +20,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -25,23 +30,29 @@ public class InscriptionController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
     @Operation(summary = "Inscription d'un nouvel utilisateur", 
               description = "Permet de créer un nouveau compte utilisateur avec vérification par email")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Inscription réussie",
-            content = @Content(schema = @Schema(implementation = User.class))),
+            content = @Content(schema = @Schema(implementation = UserSummary.class))),
         @ApiResponse(responseCode = "400", description = "Données invalides"),
+        @ApiResponse(responseCode = "503", description = "Service surchargé, réessayer après Retry-After"),
         @ApiResponse(responseCode = "500", description = "Erreur serveur")
     })
     @PostMapping("/register")
     public ResponseEntity<Object> register(@RequestBody User user) {
         try {
             User savedUser = userService.registerUser(user);
-            return new ResponseHandler().generateSuccessResponse(savedUser);
+            return ResponseHandler.generateSuccessResponse(UserSummary.of(savedUser));
+        } catch (ServiceOverloadedException e) {
+            return ResponseHandler.generateRetryLaterResponse(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE, e.getRetryAfterSeconds());
         } catch (RuntimeException e) {
-            return new ResponseHandler().generateErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+            return ResponseHandler.generateErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
-            return new ResponseHandler().generateErrorResponse("Erreur lors de l'inscription", HttpStatus.INTERNAL_SERVER_ERROR);
+            return ResponseHandler.generateErrorResponse("Erreur lors de l'inscription", HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
@@ -59,16 +70,43 @@ public class InscriptionController {
     ) {
         try {
             userService.verifyEmail(token);
-            return new ResponseHandler().generateSuccessResponse("Email vérifié avec succès");
+            return ResponseHandler.generateSuccessResponse("Email vérifié avec succès");
         } catch (RuntimeException e) {
-            return new ResponseHandler().generateErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+            return ResponseHandler.generateErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return ResponseHandler.generateErrorResponse("Erreur lors de la vérification", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @Operation(summary = "Renvoi du lien de vérification",
+              description = "Émet un nouveau token de vérification pour un compte non vérifié (comptes importés "
+                  + "sans email, lien perdu). Même réponse que le compte existe ou non.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Demande prise en compte"),
+        @ApiResponse(responseCode = "429", description = "Trop de demandes, réessayer après Retry-After"),
+        @ApiResponse(responseCode = "500", description = "Erreur serveur")
+    })
+    @PostMapping("/resend-verification")
+    public ResponseEntity<Object> resendVerification(
+        @Parameter(description = "Email du compte à vérifier")
+        @RequestParam String email,
+        HttpServletRequest httpRequest
+    ) {
+        try {
+            // Même limite que la connexion : pas d'envoi d'emails en rafale vers une adresse
+            loginRateLimiter.check(httpRequest.getRemoteAddr(), email);
+            userService.resendVerificationEmail(email);
+            return ResponseHandler.generateSuccessResponse(
+                "Si un compte non vérifié correspond à cet email, un nouveau lien de vérification a été envoyé");
+        } catch (TooManyRequestsException e) {
+            return ResponseHandler.generateRetryLaterResponse(e.getMessage(), HttpStatus.TOO_MANY_REQUESTS, e.getRetryAfterSeconds());
         } catch (Exception e) {
-            return new ResponseHandler().generateErrorResponse("Erreur lors de la vérification", HttpStatus.INTERNAL_SERVER_ERROR);
+            return ResponseHandler.generateErrorResponse("Erreur lors de l'envoi du lien de vérification", HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
     @GetMapping("/test")
     public ResponseEntity<Object> test() {
-        return new ResponseHandler().generateSuccessResponse("L'API fonctionne correctement");
+        return ResponseHandler.generateSuccessResponse("L'API fonctionne correctement");
     }
 }
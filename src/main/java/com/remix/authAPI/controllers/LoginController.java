@@ -7,12 +7,17 @@ import org.springframework.http.HttpStatus;
 
 import com.remix.authAPI.dto.LoginRequest;
 import com.remix.authAPI.dto.TwoFactorVerificationRequest;
-import com.remix.authAPI.entity.User;
+import com.remix.authAPI.dto.UserCredentials;
+import com.remix.authAPI.exception.ServiceOverloadedException;
+import com.remix.authAPI.exception.TooManyRequestsException;
 import com.remix.authAPI.entity.Session;
 import com.remix.authAPI.services.UserService;
 import com.remix.authAPI.services.SessionService;
+import com.remix.authAPI.services.LoginRateLimiter;
 import com.remix.authAPI.response.ResponseHandler;
 
+import jakarta.servlet.http.HttpServletRequest;
+
 import java.util.HashMap;
 import java.util.Map;
 
@@ -34,25 +39,43 @@ public class LoginController {
     @Autowired
     private SessionService sessionService;
 
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
     @Operation(summary = "Initiation de la connexion", 
               description = "Première étape de connexion qui déclenche l'envoi du code 2FA")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Code 2FA envoyé avec succès"),
         @ApiResponse(responseCode = "401", description = "Identifiants invalides"),
+        @ApiResponse(responseCode = "429", description = "Trop de tentatives, réessayer après Retry-After"),
+        @ApiResponse(responseCode = "503", description = "Service surchargé, réessayer après Retry-After"),
         @ApiResponse(responseCode = "500", description = "Erreur serveur")
     })
     @PostMapping("/login/initiate")
-    public ResponseEntity<Object> initiateLogin(@RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<Object> initiateLogin(@RequestBody LoginRequest loginRequest, HttpServletRequest httpRequest) {
         try {
-            User user = userService.initiateLogin(loginRequest.getEmail(), loginRequest.getPassword());
+            loginRateLimiter.check(httpRequest.getRemoteAddr(), loginRequest.getEmail());
+            UserCredentials user = userService.initiateLogin(loginRequest.getEmail(), loginRequest.getPassword());
             
             Map<String, Object> responseData = new HashMap<>();
             responseData.put("message", "Code de vérification envoyé par email");
-            responseData.put("email", user.getEmail());
+            responseData.put("email", user.email());
             
-            return new ResponseHandler().generateSuccessResponse(responseData);
+            return ResponseHandler.generateSuccessResponse(responseData);
+        } catch (TooManyRequestsException e) {
+            return ResponseHandler.generateRetryLaterResponse(
+                e.getMessage(),
+                HttpStatus.TOO_MANY_REQUESTS,
+                e.getRetryAfterSeconds()
+            );
+        } catch (ServiceOverloadedException e) {
+            return ResponseHandler.generateRetryLaterResponse(
+                e.getMessage(),
+                HttpStatus.SERVICE_UNAVAILABLE,
+                e.getRetryAfterSeconds()
+            );
         } catch (RuntimeException e) {
-            return new ResponseHandler().generateErrorResponse(
+            return ResponseHandler.generateErrorResponse(
                 e.getMessage(), 
                 HttpStatus.UNAUTHORIZED
             );
@@ -65,27 +88,35 @@ public class LoginController {
         @ApiResponse(responseCode = "200", description = "Authentification réussie",
             content = @Content(schema = @Schema(implementation = Session.class))),
         @ApiResponse(responseCode = "401", description = "Code 2FA invalide"),
+        @ApiResponse(responseCode = "429", description = "Trop de tentatives, réessayer après Retry-After"),
         @ApiResponse(responseCode = "500", description = "Erreur serveur")
     })
     @PostMapping("/login/verify")
-    public ResponseEntity<Object> verifyTwoFactor(@RequestBody TwoFactorVerificationRequest request) {
+    public ResponseEntity<Object> verifyTwoFactor(@RequestBody TwoFactorVerificationRequest request, HttpServletRequest httpRequest) {
         try {
-            User user = userService.verifyTwoFactorCode(request.getEmail(), request.getPin());
+            loginRateLimiter.check(httpRequest.getRemoteAddr(), request.getEmail());
+            UserCredentials user = userService.verifyTwoFactorCode(request.getEmail(), request.getPin());
             
             // Créer une session pour l'utilisateur
-            Session session = sessionService.createSession(user);
+            Session session = sessionService.createSession(user.id());
             
             Map<String, Object> responseData = new HashMap<>();
             responseData.put("token", session.getToken());
             responseData.put("expiresAt", session.getExpiresAt());
             responseData.put("user", Map.of(
-                "id", user.getId(),
-                "email", user.getEmail()
+                "id", user.id(),
+                "email", user.email()
             ));
             
-            return new ResponseHandler().generateSuccessResponse(responseData);
+            return ResponseHandler.generateSuccessResponse(responseData);
+        } catch (TooManyRequestsException e) {
+            return ResponseHandler.generateRetryLaterResponse(
+                e.getMessage(),
+                HttpStatus.TOO_MANY_REQUESTS,
+                e.getRetryAfterSeconds()
+            );
         } catch (RuntimeException e) {
-            return new ResponseHandler().generateErrorResponse(
+            return ResponseHandler.generateErrorResponse(
                 e.getMessage(), 
                 HttpStatus.UNAUTHORIZED
             );
@@ -1,9 +1,14 @@
 package com.remix.authAPI.controllers;
 
+import com.remix.authAPI.dto.SessionRevocationRequest;
 import com.remix.authAPI.services.SessionService;
 import com.remix.authAPI.response.ResponseHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -13,18 +18,29 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @RestController
 @RequestMapping("/api/sessions")
 @Tag(name = "Sessions", description = "Gestion des sessions utilisateur")
-public class SessionController extends ResponseHandler {
+public class SessionController {
+
+    // Corps constants sérialisés une fois : aucune enveloppe construite sur le chemin chaud
+    private static final ResponseEntity<Object> VALID = ResponseHandler.preSerializedSuccessResponse(true);
+    private static final ResponseEntity<Object> INVALID = ResponseHandler.preSerializedSuccessResponse(false);
+    private static final ResponseEntity<Object> LOGGED_OUT =
+        ResponseHandler.preSerializedSuccessResponse("Session terminée avec succès");
 
     private final SessionService sessionService;
 
-    public SessionController(SessionService sessionService) {
+    // Révocation de masse : désactivée par défaut, /api/** n'étant pas authentifié
+    private final boolean revocationEnabled;
+
+    public SessionController(SessionService sessionService,
+                             @Value("${app.session.revocation.enabled:false}") boolean revocationEnabled) {
         this.sessionService = sessionService;
+        this.revocationEnabled = revocationEnabled;
     }
 
     @Operation(summary = "Validation d'une session", 
               description = "Vérifie si une session est valide et la prolonge si c'est le cas")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Session valide"),
+        @ApiResponse(responseCode = "200", description = "Session valide (en mode signé, un token renouvelé peut être renvoyé dans l'en-tête Session-Token)"),
         @ApiResponse(responseCode = "401", description = "Session invalide ou expirée")
     })
     @PostMapping("/validate")
@@ -32,8 +48,17 @@ public class SessionController extends ResponseHandler {
         @Parameter(description = "Token de session", required = true)
         @RequestHeader("Session-Token") String token
     ) {
-        boolean isValid = sessionService.validateAndUpdateSession(token);
-        return generateSuccessResponse(isValid);
+        SessionService.SessionValidation validation = sessionService.validateSession(token);
+        ResponseEntity<Object> response = validation.valid() ? VALID : INVALID;
+
+        // Token signé renouvelé : le client doit remplacer son token par celui de l'en-tête
+        if (validation.refreshedToken() != null) {
+            return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header("Session-Token", validation.refreshedToken())
+                .body(response.getBody());
+        }
+        return response;
     }
 
     @Operation(summary = "Déconnexion", 
@@ -48,6 +73,36 @@ public class SessionController extends ResponseHandler {
         @RequestHeader("Session-Token") String token
     ) {
         sessionService.invalidateSession(token);
-        return generateSuccessResponse("Session terminée avec succès");
+        return LOGGED_OUT;
+    }
+
+    @Operation(summary = "Révocation de sessions",
+              description = "Supprime les sessions des utilisateurs listés et/ou ouvertes avant createdBefore, "
+                  + "en DELETE ensemblistes ; rend le nombre de sessions supprimées (0 en mode signé)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Sessions révoquées"),
+        @ApiResponse(responseCode = "400", description = "Ni userIds ni createdBefore"),
+        @ApiResponse(responseCode = "403", description = "Révocation désactivée (app.session.revocation.enabled)")
+    })
+    @PostMapping("/revoke")
+    public ResponseEntity<Object> revokeSessions(@RequestBody SessionRevocationRequest request) {
+        if (!revocationEnabled) {
+            return ResponseHandler.generateErrorResponse("Révocation désactivée", HttpStatus.FORBIDDEN);
+        }
+        boolean byUsers = request.userIds() != null && !request.userIds().isEmpty();
+        if (!byUsers && request.createdBefore() == null) {
+            return ResponseHandler.generateErrorResponse("userIds ou createdBefore requis", HttpStatus.BAD_REQUEST);
+        }
+
+        int revoked = 0;
+        if (byUsers) {
+            revoked += request.userIds().size() == 1
+                ? sessionService.revokeUserSessions(request.userIds().get(0))
+                : sessionService.revokeUsersSessions(request.userIds());
+        }
+        if (request.createdBefore() != null) {
+            revoked += sessionService.revokeSessionsCreatedBefore(request.createdBefore());
+        }
+        return ResponseHandler.generateSuccessResponse(Map.of("revoked", revoked));
     }
 } 
\ No newline at end of file
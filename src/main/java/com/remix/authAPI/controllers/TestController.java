@@ -13,6 +13,6 @@ public class TestController {
 
     @GetMapping("/")
     public ResponseEntity<Object> test() {
-        return new ResponseHandler().generateSuccessResponse("L'API fonctionne correctement");
+        return ResponseHandler.generateSuccessResponse("L'API fonctionne correctement");
     }
 }
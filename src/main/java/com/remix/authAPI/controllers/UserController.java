@@ -1,13 +1,28 @@
 package com.remix.authAPI.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.remix.authAPI.dto.CursorPage;
+import com.remix.authAPI.dto.ImportReport;
+import com.remix.authAPI.dto.UserSummary;
 import com.remix.authAPI.entity.User;
+import com.remix.authAPI.services.UserImportService;
 import com.remix.authAPI.services.UserService;
 import com.remix.authAPI.response.ResponseHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -22,24 +37,105 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @RestController
 @RequestMapping("/api/users")
 @Tag(name = "Utilisateurs", description = "Gestion des utilisateurs")
-public class UserController extends ResponseHandler {
+public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final ObjectMapper objectMapper;
+    // Pas de flush après chaque utilisateur : le tampon de la réponse regroupe les écritures
+    private final ObjectWriter streamWriter;
 
-    public UserController(UserService userService) {
+    // Import en masse : désactivé par défaut, /api/** n'étant pas authentifié
+    private final boolean importEnabled;
+
+    public UserController(UserService userService, UserImportService userImportService, ObjectMapper objectMapper,
+                          @Value("${app.users.import.enabled:false}") boolean importEnabled) {
         this.userService = userService;
+        this.userImportService = userImportService;
+        this.objectMapper = objectMapper;
+        this.importEnabled = importEnabled;
+        this.streamWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     @Operation(summary = "Liste des utilisateurs", 
-              description = "Récupère la liste de tous les utilisateurs")
+              description = "Récupère les utilisateurs page par page (curseur sur l'id), "
+                  + "ou tous d'un coup en flux continu avec stream=true")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Liste récupérée avec succès",
-            content = @Content(array = @ArraySchema(schema = @Schema(implementation = User.class))))
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = UserSummary.class))))
     })
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
-        List<User> users = userService.findAll();
-        return generateSuccessResponse(users);
+    public ResponseEntity<?> getAllUsers(
+        @Parameter(description = "Nombre maximum d'utilisateurs par page")
+        @RequestParam(defaultValue = "50") int limit,
+        @Parameter(description = "Curseur : id du dernier utilisateur de la page précédente")
+        @RequestParam(required = false) Long after,
+        @Parameter(description = "Écrit tous les utilisateurs en flux depuis la base, sans pagination")
+        @RequestParam(defaultValue = "false") boolean stream
+    ) {
+        if (stream) {
+            return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(streamAllUsers());
+        }
+
+        CursorPage<UserSummary> page = userService.findPage(after, limit);
+        Map<String, Object> meta = new LinkedHashMap<>();
+        meta.put("limit", page.limit());
+        meta.put("count", page.items().size());
+        meta.put("after", after);
+        meta.put("nextCursor", page.nextCursor());
+        meta.put("hasMore", page.hasMore());
+        return ResponseHandler.generateSuccessResponse(page.items(), meta);
+    }
+
+    // Même enveloppe que ResponseHandler, écrite au fil de la lecture du curseur
+    private StreamingResponseBody streamAllUsers() {
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartObject();
+                generator.writeArrayFieldStart("data");
+                userService.streamAll(user -> {
+                    try {
+                        streamWriter.writeValue(generator, user);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+                generator.writeNumberField("code", HttpStatus.OK.value());
+                generator.writeStringField("status", HttpStatus.OK.getReasonPhrase());
+                generator.writeEndObject();
+            }
+        };
+    }
+
+    @Operation(summary = "Import en masse d'utilisateurs",
+              description = "Importe un flux NDJSON (une ligne JSON par utilisateur) ou CSV avec en-tête. "
+                  + "Chaque ligne porte email, password ou passwordHash (BCrypt), et emailVerified")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import terminé, bilan avec débit en lignes/s",
+            content = @Content(schema = @Schema(implementation = ImportReport.class))),
+        @ApiResponse(responseCode = "400", description = "Flux illisible"),
+        @ApiResponse(responseCode = "403", description = "Import désactivé (app.users.import.enabled)")
+    })
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<Object> importUsers(
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+        @Parameter(description = "Envoi des emails de vérification aux comptes non vérifiés : SEND, ou NONE "
+            + "(lien à demander ensuite par POST /api/auth/resend-verification)")
+        @RequestParam(defaultValue = "NONE") UserImportService.VerificationEmails verification,
+        InputStream body
+    ) {
+        if (!importEnabled) {
+            return ResponseHandler.generateErrorResponse("Import désactivé", HttpStatus.FORBIDDEN);
+        }
+        try {
+            ImportReport report = userImportService.importUsers(body, UserImportService.Format.detect(contentType), verification);
+            return ResponseHandler.generateSuccessResponse(report);
+        } catch (IOException e) {
+            return ResponseHandler.generateErrorResponse("Flux d'import illisible", HttpStatus.BAD_REQUEST);
+        }
     }
 
     @Operation(summary = "Détails d'un utilisateur", 
@@ -53,9 +149,9 @@ public class UserController extends ResponseHandler {
         @Parameter(description = "ID de l'utilisateur") 
         @PathVariable Long id
     ) {
-        return userService.findById(id)
-                .map(this::generateSuccessResponse)
-                .orElse(generateErrorResponse("Utilisateur non trouvé", HttpStatus.NOT_FOUND));
+        return userService.findSummaryById(id)
+                .map(ResponseHandler::generateSuccessResponse)
+                .orElseGet(() -> ResponseHandler.generateErrorResponse("Utilisateur non trouvé", HttpStatus.NOT_FOUND));
     }
 
     @Operation(summary = "Création d'un utilisateur", 
@@ -68,9 +164,9 @@ public class UserController extends ResponseHandler {
     public ResponseEntity<Object> createUser(@RequestBody User user) {
         try {
             User savedUser = userService.save(user);
-            return generateSuccessResponse(savedUser);
+            return ResponseHandler.generateSuccessResponse(UserSummary.of(savedUser));
         } catch (Exception e) {
-            return generateErrorResponse("Erreur lors de la création de l'utilisateur", HttpStatus.BAD_REQUEST);
+            return ResponseHandler.generateErrorResponse("Erreur lors de la création de l'utilisateur", HttpStatus.BAD_REQUEST);
         }
     }
 
@@ -90,9 +186,9 @@ public class UserController extends ResponseHandler {
                 .map(existingUser -> {
                     user.setId(id);
                     User updatedUser = userService.updateUser(user);
-                    return generateSuccessResponse(updatedUser);
+                    return ResponseHandler.generateSuccessResponse(UserSummary.of(updatedUser));
                 })
-                .orElse(generateErrorResponse("Utilisateur non trouvé", HttpStatus.NOT_FOUND));
+                .orElseGet(() -> ResponseHandler.generateErrorResponse("Utilisateur non trouvé", HttpStatus.NOT_FOUND));
     }
 
     @Operation(summary = "Suppression d'un utilisateur", 
@@ -108,9 +204,9 @@ public class UserController extends ResponseHandler {
     ) {
         if (userService.findById(id).isPresent()) {
             userService.deleteById(id);
-            return generateSuccessResponse("Utilisateur supprimé avec succès");
+            return ResponseHandler.generateSuccessResponse("Utilisateur supprimé avec succès");
         }
-        return generateErrorResponse("Utilisateur non trouvé", HttpStatus.NOT_FOUND);
+        return ResponseHandler.generateErrorResponse("Utilisateur non trouvé", HttpStatus.NOT_FOUND);
     }
 
     @Operation(summary = "Vérification des tentatives de connexion", 
@@ -124,7 +220,7 @@ public class UserController extends ResponseHandler {
         @PathVariable String email
     ) {
         boolean isExceeded = userService.isLoginAttemptsExceeded(email);
-        return generateSuccessResponse(Map.of(
+        return ResponseHandler.generateSuccessResponse(Map.of(
             "isExceeded", isExceeded,
             "email", email
         ));
@@ -0,0 +1,10 @@
+package com.remix.authAPI.dto;
+
+import java.util.List;
+
+/**
+ * Page obtenue par pagination par clé (keyset) : {@code nextCursor} est la dernière clé
+ * de la page, à repasser en {@code after} pour obtenir la suivante. {@code limit} est la taille
+ * de page réellement appliquée, après bornage de la valeur demandée.
+ */
+public record CursorPage<T>(List<T> items, int limit, Long nextCursor, boolean hasMore) {}
@@ -0,0 +1,9 @@
+package com.remix.authAPI.dto;
+
+import java.util.List;
+
+/**
+ * Bilan d'un import en masse. {@code errors} ne garde que les premières lignes rejetées.
+ */
+public record ImportReport(long read, long imported, long duplicates, long invalid, double seconds,
+                           double rowsPerSecond, List<String> errors) {}
@@ -0,0 +1,4 @@
+package com.remix.authAPI.dto;
+
+public record OutgoingEmail(String to, String subject, String html) {
+}
@@ -0,0 +1,9 @@
+package com.remix.authAPI.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Révocation de masse : sessions des utilisateurs listés et/ou sessions ouvertes avant {@code createdBefore}.
+ */
+public record SessionRevocationRequest(List<Long> userIds, LocalDateTime createdBefore) {}
@@ -0,0 +1,8 @@
+package com.remix.authAPI.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Colonnes lues pour valider une session, sans charger l'utilisateur.
+ */
+public record SessionView(Long id, Long userId, LocalDateTime expiresAt) {}
@@ -0,0 +1,10 @@
+package com.remix.authAPI.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Colonnes lues par le parcours de connexion : identifiants et état de verrouillage.
+ */
+public record UserCredentials(Long id, String email, String passwordHash, Boolean isEmailVerified,
+                              Integer failedLoginAttempts, Integer failed2FAAttempts,
+                              Boolean accountLocked, LocalDateTime accountLockedUntil) {}
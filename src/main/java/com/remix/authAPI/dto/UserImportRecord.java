@@ -0,0 +1,7 @@
+package com.remix.authAPI.dto;
+
+/**
+ * Ligne d'import : un mot de passe en clair (haché à l'import) ou un hash BCrypt existant,
+ * exactement l'un des deux.
+ */
+public record UserImportRecord(String email, String password, String passwordHash, Boolean emailVerified) {}
@@ -0,0 +1,17 @@
+package com.remix.authAPI.dto;
+
+import com.remix.authAPI.entity.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Vue publique d'un utilisateur : ni hash de mot de passe, ni tokens, ni compteurs.
+ */
+public record UserSummary(Long id, String email, Boolean isEmailVerified, Boolean accountLocked,
+                          LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+    public static UserSummary of(User user) {
+        return new UserSummary(user.getId(), user.getEmail(), user.getIsEmailVerified(), user.getAccountLocked(),
+            user.getCreatedAt(), user.getUpdatedAt());
+    }
+}
@@ -0,0 +1,69 @@
+package com.remix.authAPI.entity;
+
+import com.remix.authAPI.dto.OutgoingEmail;
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "email_outbox")
+public class EmailOutbox {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_IN_FLIGHT = "IN_FLIGHT";
+    public static final String STATUS_SENT = "SENT";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    // Effacé (null) dès que le message est SENT ou FAILED
+    @Column(columnDefinition = "TEXT")
+    private String body;
+
+    @Column(nullable = false, length = 16)
+    private String status = STATUS_PENDING;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    public static EmailOutbox of(OutgoingEmail email) {
+        EmailOutbox outbox = new EmailOutbox();
+        outbox.setRecipient(email.to());
+        outbox.setSubject(email.subject());
+        outbox.setBody(email.html());
+        return outbox;
+    }
+
+    public OutgoingEmail toOutgoingEmail() {
+        return new OutgoingEmail(recipient, subject, body);
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+}
@@ -2,21 +2,34 @@ package com.remix.authAPI.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import java.time.LocalDateTime;
 
 @Data
 @Entity
 @Table(name = "sessions")
 public class Session {
+    // Séquence par blocs de 50 (optimiseur pooled-lo) : pas d'INSERT immédiat, insertions groupées en batch JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sessions_seq")
+    @SequenceGenerator(name = "sessions_seq", sequenceName = "sessions_id_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    // Paresseux : la validation d'une session ne lit jamais la ligne users (hash, compteurs 2FA)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
 
-    @Column(nullable = false, unique = true)
+    // Empreinte SHA-256 du token : une fuite de la base n'expose aucune session active
+    @Column(name = "token_hash", nullable = false, unique = true)
+    private byte[] tokenHash;
+
+    // Token en clair, connu seulement à la création (réponse de connexion)
+    @Transient
+    @ToString.Exclude
     private String token;
 
     @Column(name = "expires_at", nullable = false)
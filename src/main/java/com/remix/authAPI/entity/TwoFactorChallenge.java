@@ -0,0 +1,23 @@
+package com.remix.authAPI.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "two_factor_challenges")
+public class TwoFactorChallenge {
+    @Id
+    @Column(nullable = false)
+    private String email;
+
+    @Column(nullable = false, length = 12)
+    private String code;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
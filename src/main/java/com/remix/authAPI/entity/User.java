@@ -8,8 +8,10 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "users")
 public class User {
+    // Séquence par blocs de 50 (optimiseur pooled-lo) : pas d'INSERT immédiat, insertions groupées en batch JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -21,8 +23,9 @@ public class User {
     @Column(name = "is_email_verified")
     private Boolean isEmailVerified = false;
 
-    @Column(name = "email_verification_token")
-    private String emailVerificationToken;
+    // Empreintes SHA-256 des tokens envoyés par email (TokenDigest) : seul le lien reçu contient le token
+    @Column(name = "email_verification_token_hash")
+    private byte[] emailVerificationTokenHash;
 
     @Column(name = "email_verification_expiry")
     private LocalDateTime emailVerificationExpiry;
@@ -45,18 +48,15 @@ public class User {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
-    @Column(name = "two_factor_code")
-    private String twoFactorCode;
-
-    @Column(name = "two_factor_code_expiry")
-    private LocalDateTime twoFactorCodeExpiry;
-
     @Column(name = "failed_2fa_attempts")
     private Integer failed2FAAttempts = 0;
 
     @Column(name = "last_failed_2fa")
     private LocalDateTime lastFailed2FA;
 
+    @Column(name = "unlock_token_hash")
+    private byte[] unlockTokenHash;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
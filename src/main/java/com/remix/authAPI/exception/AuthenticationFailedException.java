@@ -0,0 +1,33 @@
+package com.remix.authAPI.exception;
+
+/**
+ * Échec d'authentification attendu (identifiants, verrouillage, code 2FA).
+ * Les services la déclarent en {@code noRollbackFor} : les compteurs d'échec
+ * écrits avant la levée de l'exception doivent être validés.
+ */
+public class AuthenticationFailedException extends RuntimeException {
+
+    /**
+     * Cause de l'échec, en nombre fini : sert d'étiquette aux métriques.
+     */
+    public enum Reason {
+        UNKNOWN_USER,
+        LOCKED,
+        EMAIL_NOT_VERIFIED,
+        BAD_PASSWORD,
+        NO_CODE,
+        EXPIRED_CODE,
+        BAD_CODE
+    }
+
+    private final Reason reason;
+
+    public AuthenticationFailedException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
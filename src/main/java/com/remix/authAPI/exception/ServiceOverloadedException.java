@@ -0,0 +1,19 @@
+package com.remix.authAPI.exception;
+
+/**
+ * Levée lorsqu'une ressource bornée (pool de hachage, limiteur de débit) refuse
+ * une requête. Les contrôleurs la traduisent en 503/429 avec l'en-tête Retry-After.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,11 @@
+package com.remix.authAPI.exception;
+
+/**
+ * Refus d'un limiteur de débit, traduit en 429 avec l'en-tête Retry-After.
+ */
+public class TooManyRequestsException extends ServiceOverloadedException {
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message, retryAfterSeconds);
+    }
+}
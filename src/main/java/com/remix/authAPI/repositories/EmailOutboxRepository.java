@@ -0,0 +1,62 @@
+package com.remix.authAPI.repositories;
+
+import com.remix.authAPI.entity.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Réserve un lot de messages dus dans une transaction courte : passage en IN_FLIGHT avec un bail
+     * jusqu'à {@code leaseUntil} (porté par next_attempt_at). Un message resté IN_FLIGHT après
+     * son bail (instance arrêtée pendant l'envoi) redevient réservable.
+     * SKIP LOCKED : plusieurs instances se partagent la file sans s'attendre.
+     */
+    @Transactional
+    @Query(value = """
+        UPDATE email_outbox SET status = 'IN_FLIGHT', next_attempt_at = ?2
+        WHERE id IN (
+            SELECT id FROM email_outbox
+            WHERE status IN ('PENDING', 'IN_FLIGHT') AND next_attempt_at <= ?1
+            ORDER BY id
+            LIMIT ?3
+            FOR UPDATE SKIP LOCKED)
+        RETURNING *
+        """, nativeQuery = true)
+    List<EmailOutbox> claimBatch(LocalDateTime now, LocalDateTime leaseUntil, int batchSize);
+
+    // Le corps (liens, codes) n'est plus utile une fois le message remis
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = 'SENT', e.sentAt = ?2, e.body = NULL WHERE e.id IN ?1")
+    int markSent(List<Long> ids, LocalDateTime sentAt);
+
+    // Échec d'envoi : nouvelle tentative (PENDING) à nextAttemptAt ou abandon (FAILED, corps effacé)
+    @Transactional
+    @Modifying
+    @Query(value = """
+        UPDATE email_outbox SET status = ?2, attempts = ?3, last_error = ?4, next_attempt_at = ?5,
+            body = CASE WHEN ?2 = 'FAILED' THEN NULL ELSE body END
+        WHERE id = ?1
+        """, nativeQuery = true)
+    int recordFailure(Long id, String status, int attempts, String lastError, LocalDateTime nextAttemptAt);
+
+    /**
+     * Supprime au plus {@code limit} messages terminés (SENT, FAILED) créés avant {@code cutoff}.
+     * Lots bornés : transactions courtes, sans verrouiller toute la table.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+        DELETE FROM email_outbox
+        WHERE id IN (
+            SELECT id FROM email_outbox
+            WHERE status IN ('SENT', 'FAILED') AND created_at < ?1
+            LIMIT ?2)
+        """, nativeQuery = true)
+    int deleteDoneBefore(LocalDateTime cutoff, int limit);
+}
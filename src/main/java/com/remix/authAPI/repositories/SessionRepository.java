@@ -1,18 +1,83 @@
 package com.remix.authAPI.repositories;
 
+import com.remix.authAPI.dto.SessionView;
 import com.remix.authAPI.entity.Session;
+import com.remix.authAPI.services.TokenDigest;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface SessionRepository extends JpaRepository<Session, Long> {
-    Optional<Session> findByToken(String token);
+
+    /**
+     * Ligne prolongée par {@link #touchSessionByTokenHash}.
+     */
+    interface TouchedSession {
+        Long getId();
+        Long getUserId();
+    }
+
+    // Les tokens sont stockés sous forme d'empreinte (TokenDigest) : les recherches prennent l'empreinte
+    Optional<Session> findByTokenHash(byte[] tokenHash);
+
+    default Optional<Session> findByToken(String token) {
+        return findByTokenHash(TokenDigest.sha256(token));
+    }
+
+    // s.user.id est lu depuis la clé étrangère : pas de jointure sur users
+    @Query("SELECT new com.remix.authAPI.dto.SessionView(s.id, s.user.id, s.expiresAt) FROM Session s WHERE s.tokenHash = ?1")
+    Optional<SessionView> findViewByTokenHash(byte[] tokenHash);
+
+    // deleteById() recharge l'entité (et son utilisateur) avant de la supprimer
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Session s WHERE s.id = ?1")
+    int deleteSession(Long id);
     
+    // Balayage par lots d'identifiants : chaque DELETE reste court et ne verrouille que son lot
+    @Query(value = "SELECT id FROM sessions WHERE id > ?1 AND expires_at < ?2 ORDER BY id LIMIT ?3", nativeQuery = true)
+    List<Long> findExpiredSessionIds(long afterId, LocalDateTime now, int limit);
+
+    @Transactional
     @Modifying
-    @Query("DELETE FROM Session s WHERE s.expiresAt < ?1 OR s.lastActivity < ?2")
-    void deleteExpiredSessions(LocalDateTime expirationTime, LocalDateTime inactivityTime);
+    @Query("DELETE FROM Session s WHERE s.id IN ?1 AND s.expiresAt < ?2")
+    int deleteExpiredByIds(List<Long> ids, LocalDateTime now);
     
-    void deleteByUser_Id(Long userId);
+    // Révocation ensembliste : un seul DELETE, sans charger les entités ; les identifiants renvoyés
+    // servent à purger l'état mémoire des sessions supprimées
+    @Transactional
+    @Query(value = "DELETE FROM sessions WHERE user_id = ?1 RETURNING id", nativeQuery = true)
+    List<Long> deleteByUserIdReturningIds(Long userId);
+
+    @Transactional
+    @Query(value = "DELETE FROM sessions WHERE user_id IN (?1) RETURNING id", nativeQuery = true)
+    List<Long> deleteByUserIdsReturningIds(Collection<Long> userIds);
+
+    @Transactional
+    @Query(value = "DELETE FROM sessions WHERE created_at < ?1 RETURNING id", nativeQuery = true)
+    List<Long> deleteCreatedBeforeReturningIds(LocalDateTime cutoff);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Session s SET s.lastActivity = ?2, s.expiresAt = ?3 WHERE s.id = ?1")
+    int touchSession(Long id, LocalDateTime lastActivity, LocalDateTime expiresAt);
+
+    /**
+     * Validation et expiration glissante en une seule instruction sur sessions (index unique du token),
+     * sans lecture préalable : vide si la session est inconnue ou déjà expirée (0 ligne modifiée).
+     */
+    @Transactional
+    @Query(value = "UPDATE sessions SET last_activity = ?2, expires_at = ?3 WHERE token_hash = ?1 AND expires_at > ?2 "
+        + "RETURNING id AS id, user_id AS userId", nativeQuery = true)
+    Optional<TouchedSession> touchSessionByTokenHash(byte[] tokenHash, LocalDateTime now, LocalDateTime expiresAt);
+
+    // Déconnexion en une instruction ; l'identifiant sert à purger l'état mémoire de la session
+    @Transactional
+    @Query(value = "DELETE FROM sessions WHERE token_hash = ?1 RETURNING id", nativeQuery = true)
+    Optional<Long> deleteByTokenHashReturningId(byte[] tokenHash);
 } 
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.remix.authAPI.repositories;
+
+import com.remix.authAPI.entity.TwoFactorChallenge;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+
+public interface TwoFactorChallengeRepository extends JpaRepository<TwoFactorChallenge, String> {
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+        INSERT INTO two_factor_challenges (email, code, expires_at, created_at)
+        VALUES (?1, ?2, ?3, ?4)
+        ON CONFLICT (email) DO UPDATE SET code = EXCLUDED.code, expires_at = EXCLUDED.expires_at, created_at = EXCLUDED.created_at
+        """, nativeQuery = true)
+    void upsert(String email, String code, LocalDateTime expiresAt, LocalDateTime createdAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TwoFactorChallenge c WHERE c.email = ?1")
+    int deleteByEmail(String email);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TwoFactorChallenge c WHERE c.expiresAt < ?1")
+    int deleteExpired(LocalDateTime now);
+}
@@ -1,11 +1,136 @@
 package com.remix.authAPI.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import com.remix.authAPI.dto.UserCredentials;
+import com.remix.authAPI.dto.UserSummary;
 import com.remix.authAPI.entity.User;
+import com.remix.authAPI.services.TokenDigest;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    // Un verrouillage expiré ne compte plus : le compteur repart de zéro
+    String LOCK_EXPIRED = "(account_locked AND account_locked_until IS NOT NULL AND account_locked_until < :now)";
+    String NEXT_LOGIN_ATTEMPTS = "(CASE WHEN " + LOCK_EXPIRED + " THEN 1 ELSE failed_login_attempts + 1 END)";
+    String NEXT_2FA_ATTEMPTS = "(CASE WHEN " + LOCK_EXPIRED + " THEN 1 ELSE failed_2fa_attempts + 1 END)";
+
+    // Projections : seules les colonnes utiles à chaque lecture sont sélectionnées
+    String SELECT_SUMMARY = "SELECT new com.remix.authAPI.dto.UserSummary(u.id, u.email, u.isEmailVerified, "
+        + "u.accountLocked, u.createdAt, u.updatedAt) FROM User u ";
+
+    /**
+     * État renvoyé par les incréments atomiques (valeurs après mise à jour).
+     */
+    interface FailedAttempts {
+        Integer getFailedAttempts();
+        Boolean getAccountLocked();
+    }
+
     Optional<User> findByEmail(String email);
-    Optional<User> findByEmailVerificationToken(String token);
+    // Tokens stockés sous forme d'empreinte (TokenDigest) : le token présenté est haché une fois
+    Optional<User> findByEmailVerificationTokenHash(byte[] tokenHash);
+    Optional<User> findByUnlockTokenHash(byte[] tokenHash);
+
+    default Optional<User> findByEmailVerificationToken(String token) {
+        return findByEmailVerificationTokenHash(TokenDigest.sha256(token));
+    }
+
+    default Optional<User> findByUnlockToken(String token) {
+        return findByUnlockTokenHash(TokenDigest.sha256(token));
+    }
+
     boolean existsByEmail(String email);
-} 
\ No newline at end of file
+
+    // Contrôle des doublons par lot pour l'import en masse : une requête pour tout le lot
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT new com.remix.authAPI.dto.UserCredentials(u.id, u.email, u.passwordHash, u.isEmailVerified, "
+        + "u.failedLoginAttempts, u.failed2FAAttempts, u.accountLocked, u.accountLockedUntil) "
+        + "FROM User u WHERE u.email = ?1")
+    Optional<UserCredentials> findCredentialsByEmail(String email);
+
+    @Query("SELECT u.failedLoginAttempts FROM User u WHERE u.email = ?1")
+    Optional<Integer> findFailedLoginAttemptsByEmail(String email);
+
+    @Query(SELECT_SUMMARY + "WHERE u.id = ?1")
+    Optional<UserSummary> findSummaryById(Long id);
+
+    // Pagination par clé : WHERE id > ? ORDER BY id LIMIT ?, coût constant quelle que soit la page
+    @Query(SELECT_SUMMARY + "WHERE u.id > ?1 ORDER BY u.id")
+    List<UserSummary> findSummariesAfter(Long afterId, Limit limit);
+
+    // Curseur serveur : lignes lues par paquets, à consommer dans une transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_SUMMARY + "ORDER BY u.id")
+    Stream<UserSummary> streamSummaries();
+
+    // Mises à jour ciblées du parcours de connexion : pas de rechargement ni de save() de l'entité complète
+
+    /**
+     * Incrément atomique (verrou de ligne) des échecs de connexion et décision de verrouillage
+     * dans le même UPDATE : aucun incrément n'est perdu sous concurrence.
+     */
+    @Transactional
+    @Query(value = "UPDATE users SET "
+        + "failed_login_attempts = " + NEXT_LOGIN_ATTEMPTS + ", "
+        + "last_failed_login = :now, "
+        + "account_locked = CASE WHEN " + NEXT_LOGIN_ATTEMPTS + " >= :max THEN TRUE "
+        + "WHEN " + LOCK_EXPIRED + " THEN FALSE ELSE account_locked END, "
+        + "account_locked_until = CASE WHEN " + NEXT_LOGIN_ATTEMPTS + " >= :max THEN :lockedUntil "
+        + "WHEN " + LOCK_EXPIRED + " THEN NULL ELSE account_locked_until END, "
+        + "updated_at = :now "
+        + "WHERE email = :email "
+        + "RETURNING failed_login_attempts AS failedAttempts, account_locked AS accountLocked",
+        nativeQuery = true)
+    Optional<FailedAttempts> incrementFailedLoginAttempts(@Param("email") String email, @Param("max") int maxAttempts,
+                                                          @Param("now") LocalDateTime now,
+                                                          @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    /**
+     * Idem pour les échecs 2FA. Le token de déblocage n'est posé que par l'incrément
+     * qui atteint exactement le maximum, c'est-à-dire celui qui verrouille.
+     */
+    @Transactional
+    @Query(value = "UPDATE users SET "
+        + "failed_2fa_attempts = " + NEXT_2FA_ATTEMPTS + ", "
+        + "last_failed_2fa = :now, "
+        + "account_locked = CASE WHEN " + NEXT_2FA_ATTEMPTS + " >= :max THEN TRUE "
+        + "WHEN " + LOCK_EXPIRED + " THEN FALSE ELSE account_locked END, "
+        + "account_locked_until = CASE WHEN " + NEXT_2FA_ATTEMPTS + " >= :max THEN :lockedUntil "
+        + "WHEN " + LOCK_EXPIRED + " THEN NULL ELSE account_locked_until END, "
+        + "unlock_token_hash = CASE WHEN " + NEXT_2FA_ATTEMPTS + " = :max THEN :unlockTokenHash ELSE unlock_token_hash END, "
+        + "updated_at = :now "
+        + "WHERE email = :email "
+        + "RETURNING failed_2fa_attempts AS failedAttempts, account_locked AS accountLocked",
+        nativeQuery = true)
+    Optional<FailedAttempts> increment2FAAttempts(@Param("email") String email, @Param("max") int maxAttempts,
+                                                  @Param("now") LocalDateTime now,
+                                                  @Param("lockedUntil") LocalDateTime lockedUntil,
+                                                  @Param("unlockTokenHash") byte[] unlockTokenHash);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.failedLoginAttempts = 0, u.lastFailedLogin = null, u.accountLocked = false, "
+        + "u.accountLockedUntil = null, u.updatedAt = ?2 WHERE u.id = ?1")
+    int resetLoginFailures(Long id, LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.failed2FAAttempts = 0, u.lastFailed2FA = null, u.failedLoginAttempts = 0, "
+        + "u.lastFailedLogin = null, u.accountLocked = false, u.accountLockedUntil = null, u.updatedAt = ?2 WHERE u.id = ?1")
+    int resetAllFailures(Long id, LocalDateTime now);
+}
@@ -0,0 +1,18 @@
+package com.remix.authAPI.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Enveloppe immuable des réponses de l'API : {@code data}, {@code error}, {@code code},
+ * {@code status}, {@code meta}. Les champs nuls ne sont pas écrits.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({ "data", "error", "code", "status", "meta" })
+public record ResponseEnvelope(Object data, String error, int code, String status, Object meta) {
+
+    public static ResponseEnvelope of(HttpStatus status, Object data, String error, Object meta) {
+        return new ResponseEnvelope(data, error, status.value(), status.getReasonPhrase(), meta);
+    }
+}
@@ -0,0 +1,45 @@
+package com.remix.authAPI.response;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Écrit les {@link ResponseEnvelope} avec un {@link ObjectWriter} construit une fois pour
+ * ce type : ni résolution du type racine ni copie de configuration à chaque réponse.
+ */
+public class ResponseEnvelopeHttpMessageConverter extends AbstractHttpMessageConverter<ResponseEnvelope> {
+
+    private final ObjectWriter writer;
+
+    public ResponseEnvelopeHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.writer = objectMapper.writerFor(ResponseEnvelope.class);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ResponseEnvelope.class == clazz;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected ResponseEnvelope readInternal(Class<? extends ResponseEnvelope> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("ResponseEnvelope est un type de réponse uniquement", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(ResponseEnvelope envelope, HttpOutputMessage outputMessage) throws IOException {
+        writer.writeValue(outputMessage.getBody(), envelope);
+    }
+}
@@ -1,69 +1,62 @@
 package com.remix.authAPI.response;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
-import java.util.HashMap;
-import java.util.Map;
+/**
+ * Construction des réponses de l'API. Sans état : les méthodes sont statiques et
+ * l'enveloppe est un {@link ResponseEnvelope} immuable.
+ */
+public final class ResponseHandler {
 
-public class ResponseHandler {
-    private Object data;
-    private Object meta;
-    private String error;
-    private HttpStatus status;
+    private static final ObjectWriter CONSTANT_WRITER = new ObjectMapper().writerFor(ResponseEnvelope.class);
 
-    public ResponseHandler() {
-        
+    private ResponseHandler() {
     }
 
     // Pour les réponses réussies avec données et métadonnées
-    public ResponseEntity<Object> generateSuccessResponse(Object data, Object meta) {
-        this.data = data;
-        this.meta = meta;
-        this.status = HttpStatus.OK;
-        return generateResponse();
+    public static ResponseEntity<Object> generateSuccessResponse(Object data, Object meta) {
+        return new ResponseEntity<>(ResponseEnvelope.of(HttpStatus.OK, data, null, meta), HttpStatus.OK);
     }
 
     // Pour les réponses réussies avec données uniquement
-    public ResponseEntity<Object> generateSuccessResponse(Object data) {
-        this.data = data;
-        this.status = HttpStatus.OK;
-        return generateResponse();
+    public static ResponseEntity<Object> generateSuccessResponse(Object data) {
+        return new ResponseEntity<>(ResponseEnvelope.of(HttpStatus.OK, data, null, null), HttpStatus.OK);
     }
 
     // Pour les réponses d'erreur avec message personnalisé
-    public ResponseEntity<Object> generateErrorResponse(String message, HttpStatus status) {
-        this.error = message;
-        this.status = status;
-        return generateResponse();
+    public static ResponseEntity<Object> generateErrorResponse(String message, HttpStatus status) {
+        return new ResponseEntity<>(ResponseEnvelope.of(status, null, message, null), status);
     }
 
     // Pour les réponses d'erreur avec message et données supplémentaires
-    public ResponseEntity<Object> generateErrorResponse(String message, HttpStatus status, Object errorDetails) {
-        this.error = message;
-        this.status = status;
-        this.data = errorDetails;
-        return generateResponse();
+    public static ResponseEntity<Object> generateErrorResponse(String message, HttpStatus status, Object errorDetails) {
+        return new ResponseEntity<>(ResponseEnvelope.of(status, errorDetails, message, null), status);
     }
 
-    private ResponseEntity<Object> generateResponse() {
-        Map<String, Object> response = new HashMap<>();
-        
-        if (data != null) {
-            response.put("data", data);
-        }
-        
-        if (error != null) {
-            response.put("error", error);
-        }
-        
-        response.put("code", status.value());
-        response.put("status", status.getReasonPhrase());
-        
-        if (meta != null) {
-            response.put("meta", meta);
-        }
+    // Pour les refus temporaires (surcharge, limitation de débit) avec l'en-tête Retry-After
+    public static ResponseEntity<Object> generateRetryLaterResponse(String message, HttpStatus status, long retryAfterSeconds) {
+        return ResponseEntity.status(status)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+            .body(ResponseEnvelope.of(status, null, message, null));
+    }
 
-        return new ResponseEntity<>(response, status);
+    /**
+     * Réponse de succès sérialisée une seule fois, à conserver dans une constante.
+     * Les en-têtes d'une {@link ResponseEntity} sont en lecture seule : l'instance est partageable.
+     * Réservé aux données constantes (booléens, messages fixes).
+     */
+    public static ResponseEntity<Object> preSerializedSuccessResponse(Object data) {
+        try {
+            byte[] body = CONSTANT_WRITER.writeValueAsBytes(ResponseEnvelope.of(HttpStatus.OK, data, null, null));
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Réponse constante non sérialisable", e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,150 @@
+package com.remix.authAPI.services;
+
+import com.remix.authAPI.exception.AuthenticationFailedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers et compteurs des parcours de connexion et de session. Toutes les combinaisons
+ * d'étiquettes sont connues d'avance (énumérations) et enregistrées au démarrage :
+ * cardinalité bornée, et aucune recherche dans le registre sur le chemin chaud.
+ */
+@Component
+public class AuthMetrics {
+
+    public enum Operation { INITIATE, VERIFY, AUTHENTICATE }
+
+    public enum Phase { LOOKUP, PASSWORD_CHECK, RECORD_FAILURE, RESET_COUNTERS, CHALLENGE, EMAIL, CODE_CHECK }
+
+    public enum LockoutCause { PASSWORD, TWO_FACTOR }
+
+    public enum SessionPath { CACHE, DATABASE, SIGNED }
+
+    public enum RevocationScope { USER, USERS, CREATED_BEFORE }
+
+    // Issue hors AuthenticationFailedException (file de hachage pleine, base indisponible...)
+    private static final String ERROR = "error";
+    private static final String SUCCESS = "success";
+
+    private final Timer[][] phaseTimers;
+    private final Timer[][] outcomeTimers;
+    private final Counter[] lockouts;
+    private final Timer[][] sessionValidations;
+    private final Timer[] sessionCreations;
+    private final Counter[] revocations;
+
+    public AuthMetrics(MeterRegistry registry) {
+        Operation[] operations = Operation.values();
+        Phase[] phases = Phase.values();
+        AuthenticationFailedException.Reason[] reasons = AuthenticationFailedException.Reason.values();
+
+        phaseTimers = new Timer[operations.length][phases.length];
+        outcomeTimers = new Timer[operations.length][reasons.length + 2];
+        for (Operation operation : operations) {
+            for (Phase phase : phases) {
+                phaseTimers[operation.ordinal()][phase.ordinal()] = Timer.builder("auth.login.phase")
+                    .description("Durée de chaque étape du parcours de connexion")
+                    .tag("operation", tag(operation))
+                    .tag("phase", tag(phase))
+                    .register(registry);
+            }
+            for (AuthenticationFailedException.Reason reason : reasons) {
+                outcomeTimers[operation.ordinal()][reason.ordinal()] = loginTimer(registry, operation, tag(reason));
+            }
+            outcomeTimers[operation.ordinal()][reasons.length] = loginTimer(registry, operation, SUCCESS);
+            outcomeTimers[operation.ordinal()][reasons.length + 1] = loginTimer(registry, operation, ERROR);
+        }
+
+        lockouts = new Counter[LockoutCause.values().length];
+        for (LockoutCause cause : LockoutCause.values()) {
+            lockouts[cause.ordinal()] = Counter.builder("auth.account.lockouts")
+                .description("Comptes verrouillés après trop d'échecs")
+                .tag("cause", tag(cause))
+                .register(registry);
+        }
+
+        sessionValidations = new Timer[SessionPath.values().length][2];
+        for (SessionPath path : SessionPath.values()) {
+            sessionValidations[path.ordinal()][0] = sessionTimer(registry, path, "invalid");
+            sessionValidations[path.ordinal()][1] = sessionTimer(registry, path, "valid");
+        }
+
+        sessionCreations = new Timer[2];
+        sessionCreations[0] = Timer.builder("auth.session.create").tag("mode", "opaque").register(registry);
+        sessionCreations[1] = Timer.builder("auth.session.create").tag("mode", "signed").register(registry);
+
+        revocations = new Counter[RevocationScope.values().length];
+        for (RevocationScope scope : RevocationScope.values()) {
+            revocations[scope.ordinal()] = Counter.builder("auth.session.revoked")
+                .description("Sessions supprimées par une révocation explicite")
+                .tag("scope", tag(scope))
+                .register(registry);
+        }
+    }
+
+    /**
+     * Enregistre la durée d'une étape depuis {@code startNanos} et rend l'instant de fin,
+     * qui sert de début à l'étape suivante.
+     */
+    public long phase(Operation operation, Phase phase, long startNanos) {
+        long now = System.nanoTime();
+        phaseTimers[operation.ordinal()][phase.ordinal()].record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    public void success(Operation operation, long startNanos) {
+        record(operation, AuthenticationFailedException.Reason.values().length, startNanos);
+    }
+
+    public void failure(Operation operation, RuntimeException failure, long startNanos) {
+        int outcome = failure instanceof AuthenticationFailedException authFailure && authFailure.getReason() != null
+            ? authFailure.getReason().ordinal()
+            : AuthenticationFailedException.Reason.values().length + 1;
+        record(operation, outcome, startNanos);
+    }
+
+    public void lockout(LockoutCause cause) {
+        lockouts[cause.ordinal()].increment();
+    }
+
+    public void sessionValidated(SessionPath path, boolean valid, long startNanos) {
+        sessionValidations[path.ordinal()][valid ? 1 : 0].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void sessionCreated(boolean signed, long startNanos) {
+        sessionCreations[signed ? 1 : 0].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void sessionsRevoked(RevocationScope scope, int count) {
+        revocations[scope.ordinal()].increment(count);
+    }
+
+    private void record(Operation operation, int outcome, long startNanos) {
+        outcomeTimers[operation.ordinal()][outcome].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer loginTimer(MeterRegistry registry, Operation operation, String outcome) {
+        return Timer.builder("auth.login")
+            .description("Durée totale d'une opération de connexion, par issue")
+            .tag("operation", tag(operation))
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+
+    private static Timer sessionTimer(MeterRegistry registry, SessionPath path, String outcome) {
+        return Timer.builder("auth.session.validate")
+            .description("Durée de validation d'une session, par chemin")
+            .tag("path", tag(path))
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+
+    private static String tag(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,205 @@
+package com.remix.authAPI.services;
+
+import com.remix.authAPI.dto.OutgoingEmail;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envoi asynchrone des emails : file bornée en mémoire consommée par quelques threads dédiés,
+ * avec nouvelles tentatives (backoff exponentiel) et liste des messages en échec (dead letters).
+ * Dans une transaction, le message n'est mis en file qu'après le commit.
+ */
+@Component
+public class EmailDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailDispatcher.class);
+
+    public record DeadLetter(OutgoingEmail email, String error, int attempts, LocalDateTime failedAt) {}
+
+    private final JavaMailSender mailSender;
+    private final SmtpTransportPool transportPool;
+    private final BlockingQueue<OutgoingEmail> queue;
+    private final ConcurrentLinkedDeque<DeadLetter> deadLetters = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger deadLetterCount = new AtomicInteger();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    @Value("${app.mail.dispatch.workers:4}")
+    private int workerCount;
+
+    @Value("${app.mail.dispatch.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.mail.dispatch.initial-backoff-ms:500}")
+    private long initialBackoffMillis;
+
+    @Value("${app.mail.dispatch.dead-letter-capacity:1000}")
+    private int deadLetterCapacity;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalSendNanos = new AtomicLong();
+    private final AtomicLong maxSendNanos = new AtomicLong();
+
+    public EmailDispatcher(JavaMailSender mailSender, SmtpTransportPool transportPool,
+                           @Value("${app.mail.dispatch.queue-capacity:10000}") int queueCapacity) {
+        this.mailSender = mailSender;
+        this.transportPool = transportPool;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    void startWorkers() {
+        // Threads plateforme : les méthodes de Transport (JavaMail) sont synchronized, un thread
+        // virtuel resterait épinglé sur son porteur pendant tout l'échange SMTP
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(Thread.ofPlatform().daemon().name("email-dispatch-" + i).start(this::work));
+        }
+    }
+
+    @PreDestroy
+    void stopWorkers() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+
+    /**
+     * Met le message en file, après le commit si une transaction est en cours.
+     * Un rollback annule l'envoi : aucun email ne référence des données non enregistrées.
+     */
+    public void submit(OutgoingEmail email) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(email);
+                }
+            });
+        } else {
+            enqueue(email);
+        }
+    }
+
+    private void enqueue(OutgoingEmail email) {
+        if (!queue.offer(email)) {
+            rejected.incrementAndGet();
+            addDeadLetter(new DeadLetter(email, "File d'envoi pleine", 0, LocalDateTime.now()));
+            log.warn("File d'envoi des emails pleine, message pour {} abandonné", email.to());
+        }
+    }
+
+    private void work() {
+        while (running) {
+            OutgoingEmail email;
+            try {
+                email = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            deliverWithRetry(email);
+        }
+    }
+
+    private void deliverWithRetry(OutgoingEmail email) {
+        long backoff = initialBackoffMillis;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                send(email);
+                return;
+            } catch (MessagingException | MailException e) {
+                if (attempt == maxAttempts) {
+                    failed.incrementAndGet();
+                    addDeadLetter(new DeadLetter(email, e.getMessage(), attempt, LocalDateTime.now()));
+                    log.error("Échec de l'envoi de l'email à {} après {} tentatives", email.to(), attempt, e);
+                    return;
+                }
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    addDeadLetter(new DeadLetter(email, "Arrêt du service d'envoi", attempt, LocalDateTime.now()));
+                    return;
+                }
+                backoff *= 2;
+            }
+        }
+    }
+
+    void send(OutgoingEmail email) throws MessagingException {
+        long start = System.nanoTime();
+
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "utf-8");
+        helper.setTo(email.to());
+        helper.setSubject(email.subject());
+        helper.setText(email.html(), true);
+        if (transportPool.isEnabled()) {
+            transportPool.send(mimeMessage);
+        } else {
+            mailSender.send(mimeMessage);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        sent.incrementAndGet();
+        totalSendNanos.addAndGet(elapsed);
+        maxSendNanos.accumulateAndGet(elapsed, Math::max);
+    }
+
+    private void addDeadLetter(DeadLetter deadLetter) {
+        deadLetters.addLast(deadLetter);
+        if (deadLetterCount.incrementAndGet() > deadLetterCapacity && deadLetters.pollFirst() != null) {
+            deadLetterCount.decrementAndGet();
+        }
+    }
+
+    public List<DeadLetter> getDeadLetters() {
+        return List.copyOf(deadLetters);
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public double getAverageSendMillis() {
+        long count = sent.get();
+        return count == 0 ? 0 : totalSendNanos.get() / 1_000_000.0 / count;
+    }
+
+    public double getMaxSendMillis() {
+        return maxSendNanos.get() / 1_000_000.0;
+    }
+}
@@ -0,0 +1,109 @@
+package com.remix.authAPI.services;
+
+import com.remix.authAPI.entity.EmailOutbox;
+import com.remix.authAPI.repositories.EmailOutboxRepository;
+import jakarta.mail.MessagingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.MailException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Relais de la table {@code email_outbox} (mode {@code app.mail.delivery=outbox}) :
+ * réserve un lot de messages en attente dans une transaction courte, les envoie hors transaction
+ * (aucun verrou ni connexion JDBC retenus pendant les échanges SMTP) puis les marque comme envoyés.
+ * Livraison au moins une fois : un message envoyé dont le marquage est perdu est renvoyé à la fin du bail.
+ */
+@Component
+@ConditionalOnProperty(name = "app.mail.delivery", havingValue = "outbox")
+public class EmailOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxRelay.class);
+
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailDispatcher emailDispatcher;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final Duration lease;
+    private final Duration retention;
+
+    public EmailOutboxRelay(
+        EmailOutboxRepository outboxRepository,
+        EmailDispatcher emailDispatcher,
+        @Value("${app.mail.outbox.batch-size:100}") int batchSize,
+        @Value("${app.mail.dispatch.max-attempts:3}") int maxAttempts,
+        @Value("${app.mail.dispatch.initial-backoff-ms:500}") long initialBackoffMillis,
+        @Value("${app.mail.outbox.lease-seconds:60}") long leaseSeconds,
+        @Value("${app.mail.outbox.retention-days:7}") long retentionDays
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.emailDispatcher = emailDispatcher;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:1000}")
+    public int relay() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> batch = outboxRepository.claimBatch(now, now.plus(lease), batchSize);
+        List<Long> sentIds = new ArrayList<>(batch.size());
+
+        for (EmailOutbox message : batch) {
+            try {
+                emailDispatcher.send(message.toOutgoingEmail());
+                sentIds.add(message.getId());
+            } catch (MessagingException | MailException e) {
+                recordFailure(message, e);
+            }
+        }
+
+        if (!sentIds.isEmpty()) {
+            outboxRepository.markSent(sentIds, LocalDateTime.now());
+        }
+        return sentIds.size();
+    }
+
+    /**
+     * Purge des messages terminés au-delà de la rétention, par lots de {@code batchSize}.
+     * Les messages en attente ou réservés ne sont jamais supprimés.
+     */
+    @Scheduled(fixedDelayString = "${app.mail.outbox.purge-interval-ms:3600000}")
+    public int purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int purged = 0;
+        int deleted;
+        do {
+            deleted = outboxRepository.deleteDoneBefore(cutoff, batchSize);
+            purged += deleted;
+        } while (deleted == batchSize);
+        if (purged > 0) {
+            log.info("{} emails envoyés ou abandonnés purgés de l'outbox", purged);
+        }
+        return purged;
+    }
+
+    private void recordFailure(EmailOutbox message, Exception e) {
+        int attempts = message.getAttempts() + 1;
+        LocalDateTime now = LocalDateTime.now();
+        if (attempts >= maxAttempts) {
+            log.error("Échec définitif de l'envoi de l'email {} à {}", message.getId(), message.getRecipient(), e);
+            outboxRepository.recordFailure(message.getId(), EmailOutbox.STATUS_FAILED, attempts, e.getMessage(), now);
+            return;
+        }
+        long backoff = initialBackoffMillis << (attempts - 1);
+        outboxRepository.recordFailure(message.getId(), EmailOutbox.STATUS_PENDING, attempts, e.getMessage(),
+            now.plusNanos(backoff * 1_000_000));
+    }
+}
@@ -0,0 +1,70 @@
+package com.remix.authAPI.services;
+
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Template HTML précompilé : le source est découpé une seule fois en segments
+ * littéraux et variables {@code {{nom}}}, le rendu ne fait que concaténer.
+ */
+public final class EmailTemplate {
+
+    private final String[] literals;
+    private final String[] variables;
+    private final int literalLength;
+
+    private EmailTemplate(String[] literals, String[] variables) {
+        this.literals = literals;
+        this.variables = variables;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static EmailTemplate load(String classpathLocation) {
+        try (InputStream in = new ClassPathResource(classpathLocation).getInputStream()) {
+            return compile(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Template email introuvable : " + classpathLocation, e);
+        }
+    }
+
+    public static EmailTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+
+        int position = 0;
+        while (true) {
+            int start = source.indexOf("{{", position);
+            int end = start < 0 ? -1 : source.indexOf("}}", start + 2);
+            if (end < 0) {
+                literals.add(source.substring(position));
+                break;
+            }
+            literals.add(source.substring(position, start));
+            variables.add(source.substring(start + 2, end).trim());
+            position = end + 2;
+        }
+        return new EmailTemplate(literals.toArray(String[]::new), variables.toArray(String[]::new));
+    }
+
+    /**
+     * Rendu pour les templates n'utilisant qu'une seule variable (éventuellement répétée).
+     */
+    public String render(String variable, String value) {
+        StringBuilder html = new StringBuilder(literalLength + variables.length * value.length());
+        for (int i = 0; i < variables.length; i++) {
+            html.append(literals[i]);
+            html.append(variables[i].equals(variable) ? value : "");
+        }
+        return html.append(literals[variables.length]).toString();
+    }
+}
@@ -0,0 +1,58 @@
+package com.remix.authAPI.services;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Défis 2FA en mémoire, supprimés par minuterie à leur expiration.
+ * Choix explicite ({@code app.security.two-factor-store=memory}) pour une instance unique :
+ * suppose que initiate et verify arrivent sur la même instance, et les défis sont perdus au redémarrage.
+ */
+@Component
+@ConditionalOnProperty(name = "app.security.two-factor-store", havingValue = "memory")
+public class InMemoryTwoFactorChallengeStore implements TwoFactorChallengeStore {
+
+    private final ConcurrentHashMap<String, Challenge> challenges = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor expiryTimer = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "two-factor-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Override
+    public void issue(String email, String code, LocalDateTime expiresAt) {
+        Challenge challenge = new Challenge(code, expiresAt);
+        challenges.put(email, challenge);
+
+        long delayMillis = Math.max(0, Duration.between(LocalDateTime.now(), expiresAt).toMillis());
+        // remove(clé, valeur) : un défi plus récent pour le même email n'est pas supprimé
+        expiryTimer.schedule(() -> challenges.remove(email, challenge), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Optional<Challenge> find(String email) {
+        return Optional.ofNullable(challenges.get(email));
+    }
+
+    @Override
+    public void remove(String email) {
+        challenges.remove(email);
+    }
+
+    public int size() {
+        return challenges.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        expiryTimer.shutdownNow();
+    }
+}
@@ -0,0 +1,45 @@
+package com.remix.authAPI.services;
+
+import com.remix.authAPI.repositories.TwoFactorChallengeRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Défis 2FA dans la table étroite {@code two_factor_challenges} (partagée entre instances).
+ * Implémentation par défaut : fonctionne quelle que soit l'instance qui reçoit initiate et verify.
+ */
+@Component
+@ConditionalOnProperty(name = "app.security.two-factor-store", havingValue = "database", matchIfMissing = true)
+public class JpaTwoFactorChallengeStore implements TwoFactorChallengeStore {
+
+    private final TwoFactorChallengeRepository challengeRepository;
+
+    public JpaTwoFactorChallengeStore(TwoFactorChallengeRepository challengeRepository) {
+        this.challengeRepository = challengeRepository;
+    }
+
+    @Override
+    public void issue(String email, String code, LocalDateTime expiresAt) {
+        challengeRepository.upsert(email, code, expiresAt, LocalDateTime.now());
+    }
+
+    @Override
+    public Optional<Challenge> find(String email) {
+        return challengeRepository.findById(email)
+            .map(challenge -> new Challenge(challenge.getCode(), challenge.getExpiresAt()));
+    }
+
+    @Override
+    public void remove(String email) {
+        challengeRepository.deleteByEmail(email);
+    }
+
+    @Scheduled(fixedDelayString = "${app.session.cleanup-interval-minutes}000")
+    public void purgeExpired() {
+        challengeRepository.deleteExpired(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,64 @@
+package com.remix.authAPI.services;
+
+import com.remix.authAPI.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Limitation des tentatives de connexion par IP cliente et par email, appliquée
+ * avant tout accès à UserService (aucune requête SQL ni hachage pour le trafic rejeté).
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final boolean enabled;
+    private final SlidingWindowRateLimiter byClientIp;
+    private final SlidingWindowRateLimiter byEmail;
+
+    public LoginRateLimiter(
+        @Value("${app.security.rate-limit.enabled:true}") boolean enabled,
+        @Value("${app.security.rate-limit.window-seconds:60}") long windowSeconds,
+        @Value("${app.security.rate-limit.per-ip:30}") int perIp,
+        @Value("${app.security.rate-limit.per-email:10}") int perEmail,
+        @Value("${app.security.rate-limit.max-keys:100000}") int maxKeys
+    ) {
+        this.enabled = enabled;
+        this.byClientIp = new SlidingWindowRateLimiter(perIp, windowSeconds * 1000, maxKeys);
+        this.byEmail = new SlidingWindowRateLimiter(perEmail, windowSeconds * 1000, maxKeys);
+    }
+
+    public void check(String clientIp, String email) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+
+        long retryAfterMillis = byClientIp.tryAcquire(clientIp, now);
+        if (retryAfterMillis == 0 && email != null) {
+            retryAfterMillis = byEmail.tryAcquire(email.toLowerCase(Locale.ROOT), now);
+        }
+        if (retryAfterMillis > 0) {
+            throw new TooManyRequestsException(
+                "Trop de tentatives de connexion, veuillez réessayer plus tard",
+                Math.max(1, (retryAfterMillis + 999) / 1000));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.rate-limit.eviction-interval-ms:30000}")
+    public void evictIdleKeys() {
+        long now = System.currentTimeMillis();
+        byClientIp.evictIdle(now);
+        byEmail.evictIdle(now);
+    }
+
+    public SlidingWindowRateLimiter getByClientIp() {
+        return byClientIp;
+    }
+
+    public SlidingWindowRateLimiter getByEmail() {
+        return byEmail;
+    }
+}
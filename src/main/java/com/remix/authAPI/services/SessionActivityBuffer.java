@@ -0,0 +1,176 @@
+package com.remix.authAPI.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Écriture différée (write-behind) de l'expiration glissante des sessions.
+ * Les activités sont regroupées en mémoire par session puis écrites
+ * périodiquement en UPDATE batchés.
+ */
+@Component
+public class SessionActivityBuffer {
+
+    private static final String UPDATE_SQL =
+        "UPDATE sessions SET last_activity = ?, expires_at = ? WHERE id = ?";
+
+    public record PendingActivity(String token, LocalDateTime lastActivity, LocalDateTime expiresAt, long recordedAtNanos) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SessionCache sessionCache;
+    private final boolean enabled;
+    private final Duration granularity;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+
+    private final ConcurrentHashMap<Long, PendingActivity> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong writesAvoided = new AtomicLong();
+    private final AtomicLong writesFlushed = new AtomicLong();
+    private final AtomicLong lastFlushLagMillis = new AtomicLong();
+    private final AtomicLong maxFlushLagMillis = new AtomicLong();
+
+    public SessionActivityBuffer(
+        JdbcTemplate jdbcTemplate,
+        SessionCache sessionCache,
+        @Value("${app.session.write-behind.enabled:true}") boolean enabled,
+        @Value("${app.session.write-behind.granularity-seconds:60}") long granularitySeconds,
+        @Value("${app.session.write-behind.batch-size:500}") int batchSize,
+        @Value("${app.session.write-behind.flush-interval-ms:5000}") long flushIntervalMillis
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sessionCache = sessionCache;
+        this.enabled = enabled;
+        this.granularity = Duration.ofSeconds(granularitySeconds);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Indique si l'écriture peut être ignorée : la nouvelle expiration est trop proche
+     * de celle déjà stockée pour justifier un UPDATE.
+     */
+    public boolean isWithinGranularity(LocalDateTime persistedExpiresAt, LocalDateTime newExpiresAt) {
+        return Duration.between(persistedExpiresAt, newExpiresAt).compareTo(granularity) < 0;
+    }
+
+    /**
+     * Retard maximal de expires_at en base sur l'expiration réelle, toutes instances confondues :
+     * prolongation ignorée (granularité) puis prolongation en attente jusqu'au vidage suivant.
+     */
+    public Duration getMaxPersistedLag() {
+        return enabled ? granularity.plusMillis(flushIntervalMillis) : Duration.ZERO;
+    }
+
+    public void recordSkipped() {
+        writesAvoided.incrementAndGet();
+    }
+
+    /**
+     * Enregistre l'activité en mémoire. Une activité déjà en attente pour la même
+     * session est remplacée : les deux écritures sont fusionnées en une seule.
+     */
+    public void record(Long sessionId, String token, LocalDateTime lastActivity, LocalDateTime expiresAt) {
+        PendingActivity previous = pending.put(sessionId, new PendingActivity(token, lastActivity, expiresAt, System.nanoTime()));
+        if (previous != null) {
+            writesAvoided.incrementAndGet();
+        }
+    }
+
+    public Optional<LocalDateTime> pendingExpiresAt(Long sessionId) {
+        return Optional.ofNullable(pending.get(sessionId)).map(PendingActivity::expiresAt);
+    }
+
+    public void discard(Long sessionId) {
+        pending.remove(sessionId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.session.write-behind.flush-interval-ms:5000}")
+    @Transactional
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        long oldestNanos = now;
+        List<Long> ids = new ArrayList<>(batchSize);
+        List<PendingActivity> activities = new ArrayList<>(batchSize);
+
+        for (Map.Entry<Long, PendingActivity> entry : pending.entrySet()) {
+            // remove(key, value) : une activité arrivée pendant le flush reste en attente
+            if (!pending.remove(entry.getKey(), entry.getValue())) {
+                continue;
+            }
+            ids.add(entry.getKey());
+            activities.add(entry.getValue());
+            oldestNanos = Math.min(oldestNanos, entry.getValue().recordedAtNanos());
+
+            if (ids.size() == batchSize) {
+                writeBatch(ids, activities);
+                ids.clear();
+                activities.clear();
+            }
+        }
+        if (!ids.isEmpty()) {
+            writeBatch(ids, activities);
+        }
+
+        long lagMillis = Duration.ofNanos(now - oldestNanos).toMillis();
+        lastFlushLagMillis.set(lagMillis);
+        maxFlushLagMillis.accumulateAndGet(lagMillis, Math::max);
+    }
+
+    private void writeBatch(List<Long> ids, List<PendingActivity> activities) {
+        List<Object[]> args = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            PendingActivity activity = activities.get(i);
+            args.add(new Object[] { activity.lastActivity(), activity.expiresAt(), ids.get(i) });
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, args);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                // La session a disparu de la base (déconnexion, nettoyage) : ne plus la servir depuis le cache
+                sessionCache.evict(activities.get(i).token());
+            }
+        }
+        writesFlushed.addAndGet(ids.size());
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public long getWritesAvoided() {
+        return writesAvoided.get();
+    }
+
+    public long getWritesFlushed() {
+        return writesFlushed.get();
+    }
+
+    public long getLastFlushLagMillis() {
+        return lastFlushLagMillis.get();
+    }
+
+    public long getMaxFlushLagMillis() {
+        return maxFlushLagMillis.get();
+    }
+}
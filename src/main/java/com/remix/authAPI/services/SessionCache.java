@@ -0,0 +1,183 @@
+package com.remix.authAPI.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache mémoire borné des sessions, indexé par token.
+ * Les entrées ont une durée de vie (TTL) limitée pour borner la désynchronisation
+ * avec la base lorsque plusieurs instances tournent en parallèle.
+ */
+@Component
+public class SessionCache {
+
+    public enum EvictionPolicy { LRU, FIFO }
+
+    /**
+     * {@code expiresAt} est l'expiration effective (glissante), {@code persistedExpiresAt}
+     * la dernière valeur écrite (ou programmée) en base.
+     */
+    public record CachedSession(Long sessionId, Long userId, LocalDateTime expiresAt,
+                                LocalDateTime persistedExpiresAt, long cachedAtNanos) {
+
+        public CachedSession withExpiresAt(LocalDateTime newExpiresAt) {
+            return new CachedSession(sessionId, userId, newExpiresAt, persistedExpiresAt, cachedAtNanos);
+        }
+
+        public CachedSession withPersistedExpiresAt(LocalDateTime newExpiresAt) {
+            return new CachedSession(sessionId, userId, newExpiresAt, newExpiresAt, cachedAtNanos);
+        }
+    }
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final EvictionPolicy evictionPolicy;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, CachedSession> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public SessionCache(
+        @Value("${app.session.cache.enabled:true}") boolean enabled,
+        @Value("${app.session.cache.max-size:10000}") int maxSize,
+        @Value("${app.session.cache.ttl-seconds:60}") long ttlSeconds,
+        @Value("${app.session.cache.eviction-policy:LRU}") EvictionPolicy evictionPolicy
+    ) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.evictionPolicy = evictionPolicy;
+        // accessOrder = true => LRU, false => FIFO (ordre d'insertion)
+        this.entries = new LinkedHashMap<>(16, 0.75f, evictionPolicy == EvictionPolicy.LRU) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedSession> eldest) {
+                if (size() > SessionCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Optional<CachedSession> get(String token) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        lock.lock();
+        try {
+            CachedSession entry = entries.get(token);
+            if (entry != null && System.nanoTime() - entry.cachedAtNanos() > ttlNanos) {
+                entries.remove(token);
+                evictions.incrementAndGet();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.incrementAndGet();
+                return Optional.empty();
+            }
+            hits.incrementAndGet();
+            return Optional.of(entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(String token, Long sessionId, Long userId, LocalDateTime expiresAt) {
+        put(token, new CachedSession(sessionId, userId, expiresAt, expiresAt, System.nanoTime()));
+    }
+
+    public void put(String token, CachedSession entry) {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            entries.put(token, entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void evict(String token) {
+        lock.lock();
+        try {
+            entries.remove(token);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void evictUser(Long userId) {
+        lock.lock();
+        try {
+            entries.values().removeIf(entry -> entry.userId().equals(userId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void evictUsers(Set<Long> userIds) {
+        lock.lock();
+        try {
+            entries.values().removeIf(entry -> userIds.contains(entry.userId()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void evictSessions(Set<Long> sessionIds) {
+        lock.lock();
+        try {
+            entries.values().removeIf(entry -> sessionIds.contains(entry.sessionId()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public EvictionPolicy getEvictionPolicy() {
+        return evictionPolicy;
+    }
+}
@@ -0,0 +1,140 @@
+package com.remix.authAPI.services;
+
+import com.remix.authAPI.repositories.SessionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Expiration incrémentale des sessions opaques : les échéances connues de cette instance
+ * sont rangées dans une {@link TimingWheel}, et les sessions arrivées à échéance sont
+ * supprimées par lots d'identifiants à chaque tick, au lieu d'un DELETE global périodique.
+ * Une prolongation ne touche pas la roue : l'échéance est revérifiée quand l'entrée sort.
+ */
+@Component
+public class SessionExpiryEngine {
+
+    private final SessionRepository sessionRepository;
+    private final SessionActivityBuffer activityBuffer;
+    private final boolean enabled;
+    private final int batchSize;
+    private final TimingWheel wheel;
+
+    // Échéance actuelle par session (epoch ms) : fait foi sur la position dans la roue
+    private final ConcurrentHashMap<Long, Long> deadlines = new ConcurrentHashMap<>();
+
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong rescheduled = new AtomicLong();
+
+    public SessionExpiryEngine(
+        SessionRepository sessionRepository,
+        SessionActivityBuffer activityBuffer,
+        @Value("${app.session.expiry.enabled:true}") boolean enabled,
+        @Value("${app.session.expiry.tick-ms:1000}") long tickMillis,
+        @Value("${app.session.expiry.slots:64}") int slots,
+        @Value("${app.session.expiry.levels:3}") int levels,
+        @Value("${app.session.expiry.batch-size:200}") int batchSize
+    ) {
+        this.sessionRepository = sessionRepository;
+        this.activityBuffer = activityBuffer;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.wheel = new TimingWheel(tickMillis, slots, levels, System.currentTimeMillis());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enregistre ou prolonge l'échéance d'une session. Seule une échéance avancée
+     * (ou nouvelle) est replacée dans la roue.
+     */
+    public void track(Long sessionId, LocalDateTime expiresAt) {
+        if (!enabled) {
+            return;
+        }
+        long deadline = toMillis(expiresAt);
+        Long previous = deadlines.put(sessionId, deadline);
+        if (previous == null || deadline < previous) {
+            wheel.add(sessionId, deadline);
+        }
+    }
+
+    public void untrack(Long sessionId) {
+        deadlines.remove(sessionId);
+    }
+
+    public boolean isTracked(Long sessionId) {
+        return deadlines.containsKey(sessionId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.session.expiry.tick-ms:1000}")
+    public void expireDue() {
+        if (!enabled) {
+            return;
+        }
+        long nowMillis = System.currentTimeMillis();
+        List<Long> due = wheel.advance(nowMillis);
+        if (due.isEmpty()) {
+            return;
+        }
+
+        // Même seuil que le balayage périodique : expires_at en base peut retarder sur l'échéance réelle
+        // (prolongation écrite par une autre instance, en écriture différée). Une session ainsi épargnée
+        // n'est plus suivie ici et revient au balayage de SessionService.
+        LocalDateTime cutoff = LocalDateTime.now().minus(activityBuffer.getMaxPersistedLag());
+        List<Long> batch = new ArrayList<>(Math.min(batchSize, due.size()));
+        for (Long sessionId : due) {
+            Long deadline = deadlines.get(sessionId);
+            if (deadline == null) {
+                continue; // session supprimée entre-temps
+            }
+            if (deadline > nowMillis) {
+                wheel.add(sessionId, deadline);
+                rescheduled.incrementAndGet();
+                continue;
+            }
+            if (!deadlines.remove(sessionId, deadline)) {
+                continue; // prolongée pendant le tick
+            }
+            activityBuffer.discard(sessionId);
+            batch.add(sessionId);
+            if (batch.size() == batchSize) {
+                deleteBatch(batch, cutoff);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            deleteBatch(batch, cutoff);
+        }
+    }
+
+    private void deleteBatch(List<Long> sessionIds, LocalDateTime cutoff) {
+        // La condition sur expires_at protège une session prolongée par une autre instance
+        expired.addAndGet(sessionRepository.deleteExpiredByIds(sessionIds, cutoff));
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public int getTrackedCount() {
+        return deadlines.size();
+    }
+
+    public long getExpired() {
+        return expired.get();
+    }
+
+    public long getRescheduled() {
+        return rescheduled.get();
+    }
+}
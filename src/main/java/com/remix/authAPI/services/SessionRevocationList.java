@@ -0,0 +1,196 @@
+package com.remix.authAPI.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Révocations des tokens signés : par session (sid), par utilisateur et pour tous
+ * (tokens émis avant une date). Les entrées sont conservées jusqu'à
+ * l'expiration des tokens concernés, ce qui garde l'ensemble compact.
+ * Les dates de coupure sont tronquées à la milliseconde, précision de l'iat des tokens :
+ * un token émis dans la milliseconde de la coupure n'est pas révoqué.
+ * <p>
+ * En mode signé, chaque révocation est aussi écrite dans {@code session_revocations}, dans la
+ * transaction de l'appelant, et chaque instance relit la table toutes les
+ * {@code app.session.revocation-sync.interval-ms} : une révocation faite sur une instance
+ * s'applique aux autres après ce délai, et survit au redémarrage.
+ */
+@Component
+public class SessionRevocationList {
+
+    private static final String UPSERT_SQL = """
+        INSERT INTO session_revocations (scope, subject, revoked_before, keep_until, updated_at)
+        VALUES (?, ?, ?, ?, clock_timestamp())
+        ON CONFLICT (scope, subject) DO UPDATE SET
+            revoked_before = GREATEST(session_revocations.revoked_before, EXCLUDED.revoked_before),
+            keep_until = GREATEST(session_revocations.keep_until, EXCLUDED.keep_until),
+            updated_at = EXCLUDED.updated_at
+        """;
+    private static final String CHANGED_SINCE_SQL = """
+        SELECT scope, subject, revoked_before, keep_until, updated_at FROM session_revocations
+        WHERE updated_at >= ? AND keep_until >= ?
+        """;
+    private static final String PRUNE_SQL = "DELETE FROM session_revocations WHERE keep_until < ?";
+
+    private static final String SCOPE_SESSION = "SESSION";
+    private static final String SCOPE_USER = "USER";
+    private static final String SCOPE_ALL = "ALL";
+
+    // Relecture avec recouvrement : une transaction validée après une lecture peut porter un updated_at antérieur
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(30);
+
+    private record Cutoff(Instant revokedBefore, Instant keepUntil) {
+
+        Cutoff latest(Cutoff other) {
+            return new Cutoff(
+                other.revokedBefore().isAfter(revokedBefore) ? other.revokedBefore() : revokedBefore,
+                other.keepUntil().isAfter(keepUntil) ? other.keepUntil() : keepUntil);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean shared;
+
+    private final ConcurrentHashMap<String, Instant> revokedSessions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Cutoff> revokedUsers = new ConcurrentHashMap<>();
+    private final AtomicReference<Cutoff> revokedAll = new AtomicReference<>();
+
+    // Plus grand updated_at lu en base (horloge PostgreSQL) ; null avant le premier chargement complet
+    private volatile LocalDateTime lastSeenUpdate;
+
+    public SessionRevocationList(
+        JdbcTemplate jdbcTemplate,
+        @Value("${app.session.token-mode:opaque}") String tokenMode
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        // En mode opaque, aucune révocation n'est émise : pas de relecture de la table
+        this.shared = "signed".equalsIgnoreCase(tokenMode);
+    }
+
+    /**
+     * Révoque une session et tous ses tokens rafraîchis. {@code keepUntil} est la date
+     * à laquelle le dernier token de la session aura expiré.
+     */
+    public void revokeSession(String sessionId, Instant keepUntil) {
+        applySession(sessionId, keepUntil);
+        persist(SCOPE_SESSION, sessionId, null, keepUntil);
+    }
+
+    /**
+     * Révoque tous les tokens de l'utilisateur émis avant {@code revokedBefore}.
+     * {@code keepUntil} est la date à laquelle ces tokens auront tous expiré.
+     */
+    public void revokeUser(Long userId, Instant revokedBefore, Instant keepUntil) {
+        Cutoff cutoff = new Cutoff(toMillis(revokedBefore), keepUntil);
+        applyUser(userId, cutoff);
+        persist(SCOPE_USER, userId.toString(), cutoff.revokedBefore(), keepUntil);
+    }
+
+    /**
+     * Révoque les tokens de tous les utilisateurs émis avant {@code revokedBefore} (incident de sécurité).
+     */
+    public void revokeIssuedBefore(Instant revokedBefore, Instant keepUntil) {
+        Cutoff cutoff = new Cutoff(toMillis(revokedBefore), keepUntil);
+        applyAll(cutoff);
+        persist(SCOPE_ALL, "*", cutoff.revokedBefore(), keepUntil);
+    }
+
+    public boolean isRevoked(SignedSessionTokenService.Claims claims) {
+        if (revokedSessions.containsKey(claims.sessionId())) {
+            return true;
+        }
+        Cutoff all = revokedAll.get();
+        if (all != null && claims.issuedAt().isBefore(all.revokedBefore())) {
+            return true;
+        }
+        Cutoff cutoff = revokedUsers.get(claims.userId());
+        return cutoff != null && claims.issuedAt().isBefore(cutoff.revokedBefore());
+    }
+
+    /**
+     * Charge les révocations écrites (par toute instance) depuis la dernière lecture.
+     * Le premier appel charge toutes les révocations encore utiles.
+     */
+    @Scheduled(fixedDelayString = "${app.session.revocation-sync.interval-ms:1000}")
+    public void refresh() {
+        if (!shared) {
+            return;
+        }
+        LocalDateTime since = lastSeenUpdate == null ? LocalDateTime.of(1970, 1, 1, 0, 0) : lastSeenUpdate.minus(SYNC_OVERLAP);
+        jdbcTemplate.query(CHANGED_SINCE_SQL, rs -> {
+            String scope = rs.getString("scope");
+            String subject = rs.getString("subject");
+            Instant keepUntil = toInstant(rs.getObject("keep_until", LocalDateTime.class));
+            switch (scope) {
+                case SCOPE_SESSION -> applySession(subject, keepUntil);
+                case SCOPE_USER -> applyUser(Long.valueOf(subject),
+                    new Cutoff(toInstant(rs.getObject("revoked_before", LocalDateTime.class)), keepUntil));
+                case SCOPE_ALL -> applyAll(new Cutoff(toInstant(rs.getObject("revoked_before", LocalDateTime.class)), keepUntil));
+                default -> { }
+            }
+            LocalDateTime updatedAt = rs.getObject("updated_at", LocalDateTime.class);
+            if (lastSeenUpdate == null || updatedAt.isAfter(lastSeenUpdate)) {
+                lastSeenUpdate = updatedAt;
+            }
+        }, since, LocalDateTime.now());
+        if (lastSeenUpdate == null) {
+            lastSeenUpdate = since;
+        }
+    }
+
+    private void persist(String scope, String subject, Instant revokedBefore, Instant keepUntil) {
+        if (shared) {
+            jdbcTemplate.update(UPSERT_SQL, scope, subject,
+                revokedBefore == null ? null : toLocalDateTime(revokedBefore), toLocalDateTime(keepUntil));
+        }
+    }
+
+    private void applySession(String sessionId, Instant keepUntil) {
+        revokedSessions.merge(sessionId, keepUntil, (previous, current) -> current.isAfter(previous) ? current : previous);
+    }
+
+    private void applyUser(Long userId, Cutoff cutoff) {
+        revokedUsers.merge(userId, cutoff, Cutoff::latest);
+    }
+
+    private void applyAll(Cutoff cutoff) {
+        revokedAll.accumulateAndGet(cutoff, (previous, current) -> previous == null ? current : previous.latest(current));
+    }
+
+    private static Instant toMillis(Instant instant) {
+        return instant.truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    private static LocalDateTime toLocalDateTime(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+
+    private static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    public int size() {
+        return revokedSessions.size() + revokedUsers.size() + (revokedAll.get() != null ? 1 : 0);
+    }
+
+    @Scheduled(fixedDelayString = "${app.session.cleanup-interval-minutes}000")
+    public void prune() {
+        Instant now = Instant.now();
+        revokedSessions.values().removeIf(keepUntil -> keepUntil.isBefore(now));
+        revokedUsers.values().removeIf(cutoff -> cutoff.keepUntil().isBefore(now));
+        revokedAll.updateAndGet(cutoff -> cutoff != null && cutoff.keepUntil().isBefore(now) ? null : cutoff);
+        if (shared) {
+            jdbcTemplate.update(PRUNE_SQL, toLocalDateTime(now));
+        }
+    }
+}
@@ -1,73 +1,401 @@
 package com.remix.authAPI.services;
 
 import com.remix.authAPI.entity.Session;
-import com.remix.authAPI.entity.User;
 import com.remix.authAPI.repositories.SessionRepository;
+import com.remix.authAPI.repositories.UserRepository;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class SessionService {
 
+    /**
+     * Résultat d'une validation. {@code refreshedToken} est renseigné lorsqu'un token
+     * signé a été renouvelé et doit être renvoyé au client dans l'en-tête {@code Session-Token}.
+     */
+    public record SessionValidation(boolean valid, String refreshedToken) {
+        static final SessionValidation VALID = new SessionValidation(true, null);
+        static final SessionValidation INVALID = new SessionValidation(false, null);
+    }
+
+    // Utilisateurs par DELETE : une requête PostgreSQL accepte au plus 32767 paramètres liés
+    private static final int REVOCATION_CHUNK_SIZE = 1000;
+
     private final SessionRepository sessionRepository;
+    private final UserRepository userRepository;
+    private final SessionCache sessionCache;
+    private final SessionActivityBuffer activityBuffer;
+    private final SignedSessionTokenService signedTokenService;
+    private final SessionRevocationList revocationList;
+    private final SessionExpiryEngine expiryEngine;
+    private final AuthMetrics authMetrics;
     
     @Value("${app.session.timeout-minutes}")
     private int sessionTimeoutMinutes;
 
-    public SessionService(SessionRepository sessionRepository) {
+    @Value("${app.session.token-mode:opaque}")
+    private String tokenMode;
+
+    @Value("${app.session.signed.refresh-after-seconds:60}")
+    private long refreshAfterSeconds;
+
+    @Value("${app.session.expiry.sweep-batch-size:1000}")
+    private int sweepBatchSize;
+
+    public SessionService(SessionRepository sessionRepository, UserRepository userRepository, SessionCache sessionCache,
+                          SessionActivityBuffer activityBuffer, SignedSessionTokenService signedTokenService,
+                          SessionRevocationList revocationList, SessionExpiryEngine expiryEngine,
+                          AuthMetrics authMetrics) {
         this.sessionRepository = sessionRepository;
+        this.userRepository = userRepository;
+        this.sessionCache = sessionCache;
+        this.activityBuffer = activityBuffer;
+        this.signedTokenService = signedTokenService;
+        this.revocationList = revocationList;
+        this.expiryEngine = expiryEngine;
+        this.authMetrics = authMetrics;
+    }
+
+    public boolean isSignedMode() {
+        return "signed".equalsIgnoreCase(tokenMode);
     }
 
     @Transactional
-    public Session createSession(User user) {
+    public Session createSession(Long userId) {
+        long start = System.nanoTime();
+        if (isSignedMode()) {
+            Session session = createSignedSession(userId);
+            authMetrics.sessionCreated(true, start);
+            return session;
+        }
+
         // Supprimer les sessions existantes de l'utilisateur
-        sessionRepository.deleteByUser_Id(user.getId());
+        deleteUserSessions(userId);
 
         Session session = new Session();
-        session.setUser(user);
-        session.setToken(UUID.randomUUID().toString());
+        // Référence sans SELECT : seule la clé étrangère est écrite
+        session.setUser(userRepository.getReferenceById(userId));
+        String token = UUID.randomUUID().toString();
+        session.setToken(token);
+        session.setTokenHash(TokenDigest.sha256(token));
         session.setExpiresAt(LocalDateTime.now().plusMinutes(sessionTimeoutMinutes));
         
-        return sessionRepository.save(session);
+        Session savedSession = sessionRepository.save(session);
+        afterCommit(() -> {
+            sessionCache.put(token, savedSession.getId(), userId, savedSession.getExpiresAt());
+            expiryEngine.track(savedSession.getId(), savedSession.getExpiresAt());
+        });
+        authMetrics.sessionCreated(false, start);
+        return savedSession;
+    }
+
+    /**
+     * Session sans état : aucune ligne en base, le token porte l'utilisateur et l'expiration.
+     * Les tokens déjà émis pour l'utilisateur sont révoqués, comme la suppression des sessions en mode opaque.
+     */
+    private Session createSignedSession(Long userId) {
+        // Précision du token (ms) : la coupure ne doit pas tomber après l'iat du nouveau token
+        Instant issuedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        Instant expiresAt = issuedAt.plus(Duration.ofMinutes(sessionTimeoutMinutes));
+        revocationList.revokeUser(userId, issuedAt, expiresAt);
+
+        Session session = new Session();
+        session.setToken(signedTokenService.issue(userId, signedTokenService.newSessionId(), issuedAt, expiresAt));
+        session.setExpiresAt(LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()));
+        session.setCreatedAt(LocalDateTime.ofInstant(issuedAt, ZoneId.systemDefault()));
+        session.setLastActivity(session.getCreatedAt());
+        return session;
     }
 
-    @Transactional
     public boolean validateAndUpdateSession(String token) {
-        return sessionRepository.findByToken(token)
+        return validateSession(token).valid();
+    }
+
+    // Pas de @Transactional : le chemin mémoire (cache, token signé) ne doit pas emprunter de connexion
+    public SessionValidation validateSession(String token) {
+        long start = System.nanoTime();
+        if (isSignedMode()) {
+            SessionValidation validation = validateSignedSession(token);
+            authMetrics.sessionValidated(AuthMetrics.SessionPath.SIGNED, validation.valid(), start);
+            return validation;
+        }
+        return validateOpaqueSession(token, start) ? SessionValidation.VALID : SessionValidation.INVALID;
+    }
+
+    private SessionValidation validateSignedSession(String token) {
+        Instant now = Instant.now();
+        Optional<SignedSessionTokenService.Claims> verified = signedTokenService.verify(token, now)
+            .filter(claims -> !revocationList.isRevoked(claims));
+        if (verified.isEmpty()) {
+            return SessionValidation.INVALID;
+        }
+
+        SignedSessionTokenService.Claims claims = verified.get();
+        if (Duration.between(claims.issuedAt(), now).getSeconds() < refreshAfterSeconds) {
+            return SessionValidation.VALID;
+        }
+
+        // Renouvellement : nouveau token de durée pleine pour la même session
+        String refreshedToken = signedTokenService.issue(
+            claims.userId(), claims.sessionId(), now, now.plus(Duration.ofMinutes(sessionTimeoutMinutes)));
+        return new SessionValidation(true, refreshedToken);
+    }
+
+    private boolean validateOpaqueSession(String token, long start) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime newExpiresAt = now.plusMinutes(sessionTimeoutMinutes);
+
+        // Chemin rapide : session connue en mémoire, pas de SELECT
+        Optional<SessionCache.CachedSession> cached = sessionCache.get(token);
+        if (cached.isPresent()) {
+            boolean valid = validateCachedSession(token, cached.get(), now, newExpiresAt);
+            authMetrics.sessionValidated(AuthMetrics.SessionPath.CACHE, valid, start);
+            return valid;
+        }
+
+        boolean valid = validateStoredSession(token, now, newExpiresAt);
+        authMetrics.sessionValidated(AuthMetrics.SessionPath.DATABASE, valid, start);
+        return valid;
+    }
+
+    private boolean validateCachedSession(String token, SessionCache.CachedSession entry,
+                                          LocalDateTime now, LocalDateTime newExpiresAt) {
+        if (now.isAfter(entry.expiresAt())) {
+            sessionCache.evict(token);
+            activityBuffer.discard(entry.sessionId());
+            expiryEngine.untrack(entry.sessionId());
+            sessionRepository.deleteSession(entry.sessionId());
+            return false;
+        }
+
+        if (activityBuffer.isEnabled()) {
+            sessionCache.put(token, slideExpiry(entry, token, now, newExpiresAt));
+            return true;
+        }
+
+        if (sessionRepository.touchSession(entry.sessionId(), now, newExpiresAt) == 0) {
+            // Session supprimée entre-temps (déconnexion sur une autre instance, nettoyage)
+            sessionCache.evict(token);
+            expiryEngine.untrack(entry.sessionId());
+            return false;
+        }
+        sessionCache.put(token, entry.withPersistedExpiresAt(newExpiresAt));
+        expiryEngine.track(entry.sessionId(), newExpiresAt);
+        return true;
+    }
+
+    private boolean validateStoredSession(String token, LocalDateTime now, LocalDateTime newExpiresAt) {
+        // Le cache reste indexé par le token en clair : l'empreinte n'est calculée que pour aller en base
+        byte[] tokenHash = TokenDigest.sha256(token);
+        if (!activityBuffer.isEnabled()) {
+            // Sans écriture différée : validation et prolongation en un seul UPDATE conditionnel.
+            // Une session expirée n'est pas modifiée et reste au moteur d'expiration / au nettoyage.
+            return sessionRepository.touchSessionByTokenHash(tokenHash, now, newExpiresAt)
+                .map(session -> {
+                    sessionCache.put(token, session.getId(), session.getUserId(), newExpiresAt);
+                    expiryEngine.track(session.getId(), newExpiresAt);
+                    return true;
+                })
+                .orElse(false);
+        }
+
+        // Écriture différée : lecture de la seule table sessions pour comparer à la prolongation en attente
+        return sessionRepository.findViewByTokenHash(tokenHash)
             .map(session -> {
-                LocalDateTime now = LocalDateTime.now();
-                
-                if (now.isAfter(session.getExpiresAt())) {
-                    sessionRepository.delete(session);
+                // Une prolongation encore en attente d'écriture fait foi sur la valeur en base
+                LocalDateTime expiresAt = activityBuffer.pendingExpiresAt(session.id())
+                    .filter(pendingExpiresAt -> pendingExpiresAt.isAfter(session.expiresAt()))
+                    .orElse(session.expiresAt());
+
+                if (now.isAfter(expiresAt)) {
+                    activityBuffer.discard(session.id());
+                    expiryEngine.untrack(session.id());
+                    sessionRepository.deleteSession(session.id());
                     return false;
                 }
 
-                session.setLastActivity(now);
-                session.setExpiresAt(now.plusMinutes(sessionTimeoutMinutes));
-                sessionRepository.save(session);
+                SessionCache.CachedSession entry = new SessionCache.CachedSession(
+                    session.id(), session.userId(), expiresAt, expiresAt, System.nanoTime());
+                sessionCache.put(token, slideExpiry(entry, token, now, newExpiresAt));
                 return true;
             })
             .orElse(false);
     }
 
+    /**
+     * Prolonge la session en mémoire. L'écriture en base n'est programmée que si la
+     * nouvelle expiration s'écarte de la valeur stockée d'au moins la granularité configurée.
+     */
+    private SessionCache.CachedSession slideExpiry(SessionCache.CachedSession entry, String token,
+                                                   LocalDateTime now, LocalDateTime newExpiresAt) {
+        expiryEngine.track(entry.sessionId(), newExpiresAt);
+        if (activityBuffer.isWithinGranularity(entry.persistedExpiresAt(), newExpiresAt)) {
+            activityBuffer.recordSkipped();
+            return entry.withExpiresAt(newExpiresAt);
+        }
+        activityBuffer.record(entry.sessionId(), token, now, newExpiresAt);
+        return entry.withPersistedExpiresAt(newExpiresAt);
+    }
+
     @Transactional
     public void invalidateSession(String token) {
-        sessionRepository.findByToken(token)
-            .ifPresent(sessionRepository::delete);
+        if (isSignedMode()) {
+            // Les tokens rafraîchis de la session expirent au plus tard dans un timeout
+            signedTokenService.verify(token, Instant.now()).ifPresent(claims ->
+                revocationList.revokeSession(claims.sessionId(), Instant.now().plus(Duration.ofMinutes(sessionTimeoutMinutes))));
+            return;
+        }
+
+        sessionRepository.deleteByTokenHashReturningId(TokenDigest.sha256(token))
+            .ifPresent(sessionId -> afterCommit(() -> {
+                sessionCache.evict(token);
+                forgetSessions(List.of(sessionId));
+            }));
     }
 
-    @Scheduled(fixedRateString = "${app.session.cleanup-interval-minutes}000")
+    /**
+     * Déconnexion partout : supprime toutes les sessions de l'utilisateur et rend leur nombre.
+     * En mode signé, aucune ligne n'existe : les tokens déjà émis sont révoqués et le nombre rendu est 0.
+     */
+    @Transactional
+    public int revokeUserSessions(Long userId) {
+        if (isSignedMode()) {
+            Instant now = Instant.now();
+            revocationList.revokeUser(userId, now, now.plus(Duration.ofMinutes(sessionTimeoutMinutes)));
+            return 0;
+        }
+        int revoked = deleteUserSessions(userId);
+        authMetrics.sessionsRevoked(AuthMetrics.RevocationScope.USER, revoked);
+        return revoked;
+    }
+
+    /**
+     * Révocation de masse par utilisateurs : un DELETE par paquet de {@value #REVOCATION_CHUNK_SIZE}
+     * utilisateurs, dans une seule transaction.
+     */
+    @Transactional
+    public int revokeUsersSessions(Collection<Long> userIds) {
+        Set<Long> distinctIds = new LinkedHashSet<>(userIds);
+        if (isSignedMode()) {
+            Instant now = Instant.now();
+            Instant keepUntil = now.plus(Duration.ofMinutes(sessionTimeoutMinutes));
+            distinctIds.forEach(userId -> revocationList.revokeUser(userId, now, keepUntil));
+            return 0;
+        }
+
+        List<Long> ids = new ArrayList<>(distinctIds);
+        List<Long> sessionIds = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += REVOCATION_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + REVOCATION_CHUNK_SIZE, ids.size()));
+            sessionIds.addAll(sessionRepository.deleteByUserIdsReturningIds(chunk));
+        }
+        afterCommit(() -> {
+            sessionCache.evictUsers(distinctIds);
+            forgetSessions(sessionIds);
+        });
+        authMetrics.sessionsRevoked(AuthMetrics.RevocationScope.USERS, sessionIds.size());
+        return sessionIds.size();
+    }
+
+    /**
+     * Révoque les sessions ouvertes avant {@code cutoff}, tous utilisateurs confondus (incident de sécurité).
+     * En mode signé, le token ne porte pas la date d'ouverture de la session : ce sont les tokens émis
+     * avant {@code cutoff} qui sont révoqués, et une session renouvelée depuis n'est pas couverte.
+     */
     @Transactional
+    public int revokeSessionsCreatedBefore(LocalDateTime cutoff) {
+        if (isSignedMode()) {
+            revocationList.revokeIssuedBefore(cutoff.atZone(ZoneId.systemDefault()).toInstant(),
+                Instant.now().plus(Duration.ofMinutes(sessionTimeoutMinutes)));
+            return 0;
+        }
+        List<Long> sessionIds = sessionRepository.deleteCreatedBeforeReturningIds(cutoff);
+        afterCommit(() -> {
+            sessionCache.evictSessions(new HashSet<>(sessionIds));
+            forgetSessions(sessionIds);
+        });
+        authMetrics.sessionsRevoked(AuthMetrics.RevocationScope.CREATED_BEFORE, sessionIds.size());
+        return sessionIds.size();
+    }
+
+    private int deleteUserSessions(Long userId) {
+        List<Long> sessionIds = sessionRepository.deleteByUserIdReturningIds(userId);
+        afterCommit(() -> {
+            sessionCache.evictUser(userId);
+            forgetSessions(sessionIds);
+        });
+        return sessionIds.size();
+    }
+
+    // Ni prolongation différée ni échéance ne doivent survivre à la suppression
+    private void forgetSessions(List<Long> sessionIds) {
+        for (Long sessionId : sessionIds) {
+            activityBuffer.discard(sessionId);
+            expiryEngine.untrack(sessionId);
+        }
+    }
+
+    /**
+     * L'état mémoire (cache, prolongations en attente, échéances) ne suit la base qu'après le commit :
+     * un rollback laisse les sessions et leur activité intactes. Une validation concurrente qui
+     * remettrait en cache une ligne pas encore supprimée est aussi couverte par l'éviction tardive.
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Filet de sécurité du moteur d'expiration : sessions inconnues de cette instance
+     * (créées ailleurs ou avant un redémarrage). Parcours par lots d'identifiants,
+     * chaque lot étant supprimé dans sa propre transaction courte.
+     * L'écriture différée laisse expires_at en retard sur l'expiration réelle : le balayage
+     * laisse au moteur les sessions qu'il suit (échéance mémoire exacte) et n'efface les autres
+     * qu'au-delà du retard maximal, une prolongation pouvant être en attente sur une autre instance.
+     */
+    @Scheduled(fixedRateString = "${app.session.cleanup-interval-minutes}000")
     public void cleanupExpiredSessions() {
-        LocalDateTime now = LocalDateTime.now();
-        sessionRepository.deleteExpiredSessions(
-            now,
-            now.minusMinutes(sessionTimeoutMinutes)
-        );
+        // Écrire les prolongations en attente avant de juger les sessions expirées
+        activityBuffer.flush();
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(activityBuffer.getMaxPersistedLag());
+        long afterId = 0;
+        List<Long> ids;
+        do {
+            ids = sessionRepository.findExpiredSessionIds(afterId, cutoff, sweepBatchSize);
+            if (!ids.isEmpty()) {
+                List<Long> untracked = ids.stream().filter(id -> !expiryEngine.isTracked(id)).toList();
+                if (!untracked.isEmpty()) {
+                    sessionRepository.deleteExpiredByIds(untracked, cutoff);
+                }
+                afterId = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == sweepBatchSize);
     }
-} 
\ No newline at end of file
+}
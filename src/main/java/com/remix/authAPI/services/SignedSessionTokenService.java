@@ -0,0 +1,125 @@
+package com.remix.authAPI.services;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Émission et vérification des tokens de session signés (mode {@code app.session.token-mode=signed}).
+ * Format : {@code v1.<kid>.<payload>.<signature>}, payload = {@code userId.sid.iat.exp}
+ * (epoch en millisecondes), signature HMAC-SHA256 sur {@code <kid>.<payload>}.
+ * L'identifiant de session {@code sid} est conservé lors des rafraîchissements.
+ * Toutes les clés configurées sont acceptées en vérification, seule la clé active signe.
+ */
+@Service
+public class SignedSessionTokenService {
+
+    private static final String VERSION = "v1";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public record Claims(Long userId, String sessionId, Instant issuedAt, Instant expiresAt) {}
+
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, SecretKeySpec> keys = new LinkedHashMap<>();
+
+    @Value("${app.session.token-mode:opaque}")
+    private String tokenMode;
+
+    @Value("${app.session.signing.keys:}")
+    private String configuredKeys;
+
+    @Value("${app.session.signing.active-key-id:}")
+    private String activeKeyId;
+
+    @PostConstruct
+    void loadKeys() {
+        for (String entry : configuredKeys.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.trim().split(":", 2);
+            if (parts.length != 2) {
+                throw new IllegalStateException("Clé de signature invalide (format attendu kid:secretBase64) : " + parts[0]);
+            }
+            keys.put(parts[0], new SecretKeySpec(Base64.getDecoder().decode(parts[1]), ALGORITHM));
+        }
+
+        if ("signed".equalsIgnoreCase(tokenMode) && !keys.containsKey(activeKeyId)) {
+            throw new IllegalStateException("app.session.signing.active-key-id doit désigner une clé de app.session.signing.keys");
+        }
+    }
+
+    public String newSessionId() {
+        byte[] bytes = new byte[12];
+        random.nextBytes(bytes);
+        return ENCODER.encodeToString(bytes);
+    }
+
+    public String issue(Long userId, String sessionId, Instant issuedAt, Instant expiresAt) {
+        String payload = ENCODER.encodeToString(
+            (userId + "." + sessionId + "." + issuedAt.toEpochMilli() + "." + expiresAt.toEpochMilli())
+                .getBytes(StandardCharsets.UTF_8));
+        String signed = activeKeyId + "." + payload;
+        return VERSION + "." + signed + "." + ENCODER.encodeToString(sign(keys.get(activeKeyId), signed));
+    }
+
+    /**
+     * Vérifie la signature et l'expiration. Ne consulte pas la liste de révocation.
+     */
+    public Optional<Claims> verify(String token, Instant now) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        String[] parts = token.split("\\.");
+        if (parts.length != 4 || !VERSION.equals(parts[0])) {
+            return Optional.empty();
+        }
+
+        SecretKeySpec key = keys.get(parts[1]);
+        if (key == null) {
+            return Optional.empty();
+        }
+
+        try {
+            byte[] expected = sign(key, parts[1] + "." + parts[2]);
+            if (!MessageDigest.isEqual(expected, DECODER.decode(parts[3]))) {
+                return Optional.empty();
+            }
+
+            String[] fields = new String(DECODER.decode(parts[2]), StandardCharsets.UTF_8).split("\\.");
+            Claims claims = new Claims(
+                Long.valueOf(fields[0]),
+                fields[1],
+                Instant.ofEpochMilli(Long.parseLong(fields[2])),
+                Instant.ofEpochMilli(Long.parseLong(fields[3]))
+            );
+            return now.isBefore(claims.expiresAt()) ? Optional.of(claims) : Optional.empty();
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(SecretKeySpec key, String data) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Impossible de signer le token de session", e);
+        }
+    }
+}
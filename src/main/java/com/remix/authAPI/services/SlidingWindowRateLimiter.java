@@ -0,0 +1,100 @@
+package com.remix.authAPI.services;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limiteur à fenêtre glissante approchée (fenêtre courante + fenêtre précédente pondérée),
+ * sans verrou : l'état de chaque clé tient dans un seul {@code long} mis à jour par CAS
+ * (index de fenêtre sur 32 bits, compteurs précédent et courant sur 16 bits chacun).
+ * La mémoire est bornée par {@code maxKeys} ; les clés inactives sont évincées par la tâche
+ * planifiée ({@link #evictIdle}), jamais sur le chemin d'une requête. Table pleine, les nouvelles
+ * clés partagent un même état de débordement soumis à la même limite : un afflux de clés
+ * distinctes (IP usurpées, emails inventés) est rejeté au lieu de passer sans contrôle.
+ */
+public class SlidingWindowRateLimiter {
+
+    private static final int MAX_COUNT = 0xFFFF;
+
+    private static final class KeyState extends AtomicLong {
+        volatile long lastAccessMillis;
+    }
+
+    private final int limit;
+    private final long windowMillis;
+    private final int maxKeys;
+    private final ConcurrentHashMap<String, KeyState> states = new ConcurrentHashMap<>();
+    private final KeyState overflow = new KeyState();
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong overflowed = new AtomicLong();
+
+    public SlidingWindowRateLimiter(int limit, long windowMillis, int maxKeys) {
+        this.limit = Math.min(limit, MAX_COUNT);
+        this.windowMillis = windowMillis;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Retourne 0 si la requête est acceptée, sinon le délai conseillé en millisecondes.
+     */
+    public long tryAcquire(String key, long nowMillis) {
+        KeyState state = states.get(key);
+        if (state == null) {
+            if (states.size() >= maxKeys) {
+                // Table pleine jusqu'à la prochaine éviction : compté dans l'état partagé
+                overflowed.incrementAndGet();
+                state = overflow;
+            } else {
+                state = states.computeIfAbsent(key, k -> new KeyState());
+            }
+        }
+
+        int window = (int) (nowMillis / windowMillis);
+        long elapsedInWindow = nowMillis % windowMillis;
+        while (true) {
+            long packed = state.get();
+            int stateWindow = (int) (packed >>> 32);
+            int previous = (int) ((packed >>> 16) & MAX_COUNT);
+            int current = (int) (packed & MAX_COUNT);
+
+            if (stateWindow != window) {
+                previous = stateWindow == window - 1 ? current : 0;
+                current = 0;
+            }
+
+            double weightedPrevious = previous * (double) (windowMillis - elapsedInWindow) / windowMillis;
+            if (weightedPrevious + current >= limit) {
+                rejected.incrementAndGet();
+                state.lastAccessMillis = nowMillis;
+                return windowMillis - elapsedInWindow;
+            }
+
+            long next = ((long) window << 32) | ((long) previous << 16) | Math.min(current + 1, MAX_COUNT);
+            if (state.compareAndSet(packed, next)) {
+                state.lastAccessMillis = nowMillis;
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Supprime les clés inactives depuis plus de deux fenêtres : leur état serait de toute façon remis à zéro.
+     */
+    public void evictIdle(long nowMillis) {
+        long threshold = nowMillis - 2 * windowMillis;
+        states.values().removeIf(state -> state.lastAccessMillis < threshold);
+    }
+
+    public int getTrackedKeys() {
+        return states.size();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public long getOverflowCount() {
+        return overflowed.get();
+    }
+}
@@ -0,0 +1,130 @@
+package com.remix.authAPI.services;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool de connexions SMTP maintenues ouvertes : plusieurs messages sont envoyés
+ * sur la même connexion, la poignée de main TLS et l'authentification ne sont
+ * payées qu'à l'ouverture. Une connexion inactive trop longtemps est rouverte.
+ */
+@Component
+public class SmtpTransportPool {
+
+    private record PooledTransport(Transport transport, long lastUsedNanos) {}
+
+    private final JavaMailSenderImpl mailSender;
+    private final boolean enabled;
+    private final long idleTimeoutNanos;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+
+    public SmtpTransportPool(
+        JavaMailSender mailSender,
+        @Value("${app.mail.pool.enabled:true}") boolean enabled,
+        @Value("${app.mail.pool.max-connections:4}") int maxConnections,
+        @Value("${app.mail.pool.idle-timeout-seconds:30}") long idleTimeoutSeconds
+    ) {
+        this.mailSender = mailSender instanceof JavaMailSenderImpl impl ? impl : null;
+        this.enabled = enabled && this.mailSender != null;
+        this.idleTimeoutNanos = TimeUnit.SECONDS.toNanos(idleTimeoutSeconds);
+        this.permits = new Semaphore(maxConnections);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void send(MimeMessage message) throws MessagingException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrompu en attente d'une connexion SMTP", e);
+        }
+
+        try {
+            message.saveChanges();
+            Transport transport = borrow();
+            try {
+                transport.sendMessage(message, message.getAllRecipients());
+            } catch (MessagingException | IllegalStateException e) {
+                if (!isConnectionFailure(e, transport)) {
+                    // Message ou destinataires refusés : un renvoi donnerait le même résultat
+                    idle.offerFirst(new PooledTransport(transport, System.nanoTime()));
+                    throw e;
+                }
+                // Connexion fermée par le serveur : une seule nouvelle tentative sur une connexion neuve
+                close(transport);
+                transport = connect();
+                try {
+                    transport.sendMessage(message, message.getAllRecipients());
+                } catch (MessagingException | RuntimeException retryFailure) {
+                    // Connexion neuve non rendue au pool : la fermer pour ne pas la perdre ouverte
+                    close(transport);
+                    throw retryFailure;
+                }
+            }
+            idle.offerFirst(new PooledTransport(transport, System.nanoTime()));
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Vrai si l'échec vient de la connexion (fermée par le serveur, coupure réseau) et non du message :
+     * adresse invalide ou refus SMTP ({@link SendFailedException}) ne sont pas renvoyés.
+     */
+    static boolean isConnectionFailure(Exception e, Transport transport) {
+        if (e instanceof SendFailedException || e instanceof AddressException) {
+            return false;
+        }
+        return e instanceof IllegalStateException || e.getCause() instanceof IOException || !transport.isConnected();
+    }
+
+    private Transport borrow() throws MessagingException {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (System.nanoTime() - pooled.lastUsedNanos() < idleTimeoutNanos && pooled.transport().isConnected()) {
+                return pooled.transport();
+            }
+            close(pooled.transport());
+        }
+        return connect();
+    }
+
+    private Transport connect() throws MessagingException {
+        Transport transport = mailSender.getSession().getTransport(mailSender.getProtocol());
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        return transport;
+    }
+
+    private void close(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            // connexion déjà perdue
+        }
+    }
+
+    @PreDestroy
+    void closeAll() {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            close(pooled.transport());
+        }
+    }
+}
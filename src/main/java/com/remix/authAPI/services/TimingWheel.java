@@ -0,0 +1,127 @@
+package com.remix.authAPI.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Roue temporelle hiérarchique : chaque niveau compte {@code slots} cases, une case
+ * du niveau {@code n} couvre {@code slots^n} ticks. Ajouter et avancer d'un tick coûtent
+ * O(1) amorti ; une échéance lointaine redescend d'un niveau à chaque passage de sa case.
+ * Au-delà de l'horizon du dernier niveau, l'entrée est placée à l'horizon puis replacée.
+ */
+public final class TimingWheel {
+
+    private record Entry(long id, long deadlineTick) {}
+
+    private final long tickMillis;
+    private final int slots;
+    private final long[] spans;
+    private final List<Entry>[][] buckets;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int slots, int levels, long startMillis) {
+        if (tickMillis <= 0 || slots < 2 || levels < 1) {
+            throw new IllegalArgumentException("Paramètres de roue temporelle invalides");
+        }
+        this.tickMillis = tickMillis;
+        this.slots = slots;
+        this.spans = new long[levels + 1];
+        this.buckets = new List[levels][slots];
+        spans[0] = 1;
+        for (int level = 1; level <= levels; level++) {
+            spans[level] = Math.multiplyExact(spans[level - 1], slots);
+        }
+        for (int level = 0; level < levels; level++) {
+            for (int slot = 0; slot < slots; slot++) {
+                buckets[level][slot] = new ArrayList<>();
+            }
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Programme {@code id} pour {@code deadlineMillis}. Une échéance déjà passée
+     * sera rendue au prochain {@link #advance(long)}.
+     */
+    public void add(long id, long deadlineMillis) {
+        // Arrondi au tick supérieur : une entrée n'est jamais rendue avant son échéance
+        long deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        lock.lock();
+        try {
+            place(new Entry(id, deadlineTick));
+            size++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Avance jusqu'à {@code nowMillis} et rend les identifiants arrivés à échéance.
+     */
+    public List<Long> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<Long> due = new ArrayList<>();
+        lock.lock();
+        try {
+            while (currentTick < targetTick) {
+                currentTick++;
+                // Cascade : les cases des niveaux supérieurs qui commencent à ce tick redescendent
+                for (int level = buckets.length - 1; level >= 1; level--) {
+                    if (currentTick % spans[level] == 0) {
+                        List<Entry> bucket = buckets[level][(int) ((currentTick / spans[level]) % slots)];
+                        List<Entry> cascaded = new ArrayList<>(bucket);
+                        bucket.clear();
+                        for (Entry entry : cascaded) {
+                            if (entry.deadlineTick() <= currentTick) {
+                                due.add(entry.id());
+                            } else {
+                                place(entry);
+                            }
+                        }
+                    }
+                }
+                List<Entry> bucket = buckets[0][(int) (currentTick % slots)];
+                for (Entry entry : bucket) {
+                    due.add(entry.id());
+                }
+                bucket.clear();
+            }
+            size -= due.size();
+            return due;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void place(Entry entry) {
+        int levels = buckets.length;
+        long delta = entry.deadlineTick() - currentTick;
+        if (delta <= 0) {
+            // Déjà dû : prochain tick
+            buckets[0][(int) ((currentTick + 1) % slots)].add(entry);
+            return;
+        }
+        for (int level = 0; level < levels; level++) {
+            if (delta < spans[level + 1]) {
+                buckets[level][(int) ((entry.deadlineTick() / spans[level]) % slots)].add(entry);
+                return;
+            }
+        }
+        // Hors horizon : dernière case atteignable du niveau supérieur, replacée à la cascade
+        long horizonTick = currentTick + spans[levels] - 1;
+        buckets[levels - 1][(int) ((horizonTick / spans[levels - 1]) % slots)].add(entry);
+    }
+}
@@ -0,0 +1,26 @@
+package com.remix.authAPI.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Empreinte SHA-256 (32 octets) des tokens stockés en base : sessions, vérification d'email, déblocage.
+ * Le token en clair n'existe que chez le client ; une recherche hache une fois le token présenté.
+ * Calcul identique à {@code sha256(convert_to(token, 'UTF8'))} côté PostgreSQL (migrations V4 et V6).
+ */
+public final class TokenDigest {
+
+    public static final int LENGTH = 32;
+
+    private TokenDigest() {
+    }
+
+    public static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
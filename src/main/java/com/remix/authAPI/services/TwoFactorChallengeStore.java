@@ -0,0 +1,23 @@
+package com.remix.authAPI.services;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Stockage des défis 2FA en cours, indexés par email, en dehors de la table {@code users}.
+ * Implémentation choisie par {@code app.security.two-factor-store} : {@code database} (défaut)
+ * ou {@code memory} (instance unique).
+ */
+public interface TwoFactorChallengeStore {
+
+    record Challenge(String code, LocalDateTime expiresAt) {}
+
+    /**
+     * Enregistre un nouveau défi, en remplaçant le précédent s'il existe.
+     */
+    void issue(String email, String code, LocalDateTime expiresAt);
+
+    Optional<Challenge> find(String email);
+
+    void remove(String email);
+}
@@ -0,0 +1,29 @@
+package com.remix.authAPI.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+
+/**
+ * Codes 2FA numériques. Un seul {@link SecureRandom}, partagé et thread-safe :
+ * en créer un par code coûte une initialisation de graine à chaque connexion.
+ */
+@Component
+public class TwoFactorCodeGenerator {
+
+    private final SecureRandom random = new SecureRandom();
+    private final int length;
+
+    public TwoFactorCodeGenerator(@Value("${app.security.two-factor-code-length}") int length) {
+        this.length = length;
+    }
+
+    public String generate() {
+        char[] code = new char[length];
+        for (int i = 0; i < length; i++) {
+            code[i] = (char) ('0' + random.nextInt(10));
+        }
+        return new String(code);
+    }
+}
@@ -0,0 +1,338 @@
+package com.remix.authAPI.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.remix.authAPI.dto.ImportReport;
+import com.remix.authAPI.dto.UserImportRecord;
+import com.remix.authAPI.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Import en masse d'utilisateurs depuis un flux NDJSON ou CSV, lu ligne à ligne et traité par lots :
+ * doublons contrôlés en une requête par lot, mots de passe hachés en parallèle (ou hash BCrypt
+ * repris tel quel), insertion en batch JDBC, une transaction par lot.
+ */
+@Service
+public class UserImportService {
+
+    public enum Format {
+        NDJSON, CSV;
+
+        /**
+         * Format déduit d'un nom de fichier ou d'un type de contenu ; NDJSON par défaut.
+         */
+        public static Format detect(String nameOrContentType) {
+            return nameOrContentType != null && nameOrContentType.toLowerCase(Locale.ROOT).contains("csv") ? CSV : NDJSON;
+        }
+    }
+
+    /**
+     * NONE : aucun email ni token, seule l'empreinte étant stockée un token non envoyé serait inutilisable ;
+     * les comptes non vérifiés obtiennent leur lien par POST /api/auth/resend-verification.
+     * SEND : email de vérification remis après le commit de chaque lot (file mémoire)
+     * ou écrit dans email_outbox (mode outbox).
+     */
+    public enum VerificationEmails { NONE, SEND }
+
+    private record Row(long line, UserImportRecord record) {}
+
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[abxy]?\\$\\d{2}\\$[./A-Za-z0-9]{53}$");
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final String VERIFICATION_LINK = "http://localhost:8080/api/auth/verify-email?token=";
+
+    private static final String INSERT_SQL = "INSERT INTO users (id, email, password_hash, is_email_verified, "
+        + "email_verification_token_hash, email_verification_expiry, failed_login_attempts, failed_2fa_attempts, "
+        + "account_locked, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, 0, 0, FALSE, ?, ?) "
+        + "ON CONFLICT (email) DO NOTHING";
+
+    // Blocs de users_id_seq au format pooled-lo (v .. v+49), comme l'entité User : un nextval par bloc
+    private static final int ID_BLOCK_SIZE = 50;
+    private static final String ALLOCATE_IDS_SQL = "SELECT nextval('users_id_seq') FROM generate_series(1, ?)";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EmailService emailService;
+    private final ObjectReader recordReader;
+    // Encodeur sans pool borné : l'import gère son propre parallélisme et ne doit pas saturer la file des connexions
+    private final PasswordEncoder importEncoder;
+    private final int batchSize;
+    private final int hashThreads;
+
+    public UserImportService(
+        UserRepository userRepository,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        EmailService emailService,
+        ObjectMapper objectMapper,
+        @Value("${app.security.hashing.strength:10}") int strength,
+        @Value("${app.users.import.batch-size:1000}") int batchSize,
+        @Value("${app.users.import.hash-threads:0}") int hashThreads
+    ) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.emailService = emailService;
+        this.recordReader = objectMapper.readerFor(UserImportRecord.class);
+        this.importEncoder = new BCryptPasswordEncoder(strength);
+        this.batchSize = batchSize;
+        // 0 => un thread par cœur
+        this.hashThreads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public ImportReport importUsers(InputStream input, Format format, VerificationEmails verification) throws IOException {
+        long start = System.nanoTime();
+        long[] counters = new long[4]; // lus, importés, doublons, invalides
+        List<String> errors = new ArrayList<>();
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        try (ExecutorService hashers = Executors.newFixedThreadPool(hashThreads, runnable -> {
+                 Thread thread = new Thread(runnable, "import-hash-" + threadIndex.getAndIncrement());
+                 thread.setDaemon(true);
+                 return thread;
+             });
+             BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+
+            String[] csvHeader = format == Format.CSV ? readCsvHeader(reader) : null;
+            long lineNumber = csvHeader == null ? 0 : 1;
+            List<Row> batch = new ArrayList<>(batchSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                counters[0]++;
+                try {
+                    UserImportRecord record = format == Format.CSV ? parseCsv(csvHeader, line) : recordReader.readValue(line);
+                    batch.add(new Row(lineNumber, record));
+                } catch (IOException | IllegalArgumentException e) {
+                    reject(counters, errors, lineNumber, "ligne illisible");
+                }
+                if (batch.size() == batchSize) {
+                    importBatch(batch, verification, hashers, counters, errors);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                importBatch(batch, verification, hashers, counters, errors);
+            }
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return new ImportReport(counters[0], counters[1], counters[2], counters[3], seconds,
+            seconds > 0 ? counters[0] / seconds : 0, errors);
+    }
+
+    private void importBatch(List<Row> batch, VerificationEmails verification, ExecutorService hashers,
+                             long[] counters, List<String> errors) {
+        // Validation et doublons internes au lot
+        Map<String, Row> byEmail = new LinkedHashMap<>();
+        for (Row row : batch) {
+            String problem = validate(row.record());
+            if (problem != null) {
+                reject(counters, errors, row.line(), problem);
+            } else if (byEmail.putIfAbsent(row.record().email().trim(), row) != null) {
+                counters[2]++;
+            }
+        }
+        if (byEmail.isEmpty()) {
+            return;
+        }
+
+        // Doublons avec la base : une seule requête pour le lot
+        Set<String> existing = userRepository.findExistingEmails(byEmail.keySet());
+        counters[2] += existing.size();
+        byEmail.keySet().removeAll(existing);
+        if (byEmail.isEmpty()) {
+            return;
+        }
+
+        // Hachage parallèle des mots de passe en clair ; les hash BCrypt fournis sont repris tels quels
+        Map<String, Future<String>> hashes = new HashMap<>();
+        byEmail.forEach((email, row) -> {
+            if (row.record().password() != null) {
+                hashes.put(email, hashers.submit(() -> importEncoder.encode(row.record().password())));
+            }
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp nowTimestamp = Timestamp.valueOf(now);
+        Timestamp verificationExpiry = Timestamp.valueOf(now.plusHours(24));
+        List<String> emails = new ArrayList<>(byEmail.size());
+        List<String> tokens = new ArrayList<>(byEmail.size());
+        List<Object[]> args = new ArrayList<>(byEmail.size());
+        Iterator<Long> ids = allocateIds(byEmail.size()).iterator();
+        byEmail.forEach((email, row) -> {
+            boolean verified = Boolean.TRUE.equals(row.record().emailVerified());
+            String passwordHash = hashes.containsKey(email) ? await(hashes.get(email)) : row.record().passwordHash();
+            String token = verified || verification == VerificationEmails.NONE ? null : UUID.randomUUID().toString();
+            emails.add(email);
+            tokens.add(token);
+            args.add(new Object[] {
+                ids.next(), email, passwordHash, verified,
+                token == null ? null : TokenDigest.sha256(token),
+                token == null ? null : verificationExpiry,
+                nowTimestamp, nowTimestamp
+            });
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            int[] counts = jdbcTemplate.batchUpdate(INSERT_SQL, args);
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    counters[2]++; // inséré entre-temps par une autre requête
+                    continue;
+                }
+                counters[1]++;
+                String token = tokens.get(i);
+                if (token != null) {
+                    emailService.sendVerificationEmail(emails.get(i), VERIFICATION_LINK + token);
+                }
+            }
+        });
+    }
+
+    private List<Long> allocateIds(int count) {
+        int blocks = (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+        List<Long> ids = new ArrayList<>(count);
+        for (Long blockStart : jdbcTemplate.queryForList(ALLOCATE_IDS_SQL, Long.class, blocks)) {
+            for (int i = 0; i < ID_BLOCK_SIZE && ids.size() < count; i++) {
+                ids.add(blockStart + i);
+            }
+        }
+        return ids;
+    }
+
+    private static String validate(UserImportRecord record) {
+        if (record == null || record.email() == null || record.email().isBlank() || !record.email().contains("@")) {
+            return "email manquant ou invalide";
+        }
+        if ((record.password() == null) == (record.passwordHash() == null)) {
+            return "renseigner soit password, soit passwordHash";
+        }
+        if (record.passwordHash() != null && !BCRYPT_HASH.matcher(record.passwordHash()).matches()) {
+            return "passwordHash n'est pas un hash BCrypt";
+        }
+        return null;
+    }
+
+    private static void reject(long[] counters, List<String> errors, long line, String problem) {
+        counters[3]++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add("ligne " + line + " : " + problem);
+        }
+    }
+
+    private static String await(Future<String> hash) {
+        try {
+            return hash.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrompu", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erreur lors du hachage du mot de passe", e.getCause());
+        }
+    }
+
+    private static String[] readCsvHeader(BufferedReader reader) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            return new String[0];
+        }
+        String[] columns = splitCsv(header).toArray(String[]::new);
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = columns[i].trim().toLowerCase(Locale.ROOT).replace("_", "");
+        }
+        return columns;
+    }
+
+    /**
+     * Colonnes reconnues (casse et soulignés ignorés) : email, password, passwordHash, emailVerified.
+     */
+    static UserImportRecord parseCsv(String[] header, String line) {
+        List<String> values = splitCsv(line);
+        if (values.size() != header.length) {
+            throw new IllegalArgumentException("Nombre de colonnes inattendu");
+        }
+        String email = null;
+        String password = null;
+        String passwordHash = null;
+        Boolean emailVerified = null;
+        for (int i = 0; i < header.length; i++) {
+            String value = values.get(i).isEmpty() ? null : values.get(i);
+            switch (header[i]) {
+                case "email" -> email = value;
+                case "password" -> password = value;
+                case "passwordhash" -> passwordHash = value;
+                case "emailverified" -> emailVerified = value == null ? null : Boolean.valueOf(value.trim());
+                default -> { } // colonne ignorée
+            }
+        }
+        return new UserImportRecord(email, password, passwordHash, emailVerified);
+    }
+
+    /**
+     * Découpe une ligne CSV (RFC 4180 sans retour à la ligne dans les champs) : séparateur virgule,
+     * champs entre guillemets, guillemet doublé pour un guillemet littéral.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Guillemet non fermé");
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
@@ -3,18 +3,26 @@ package com.remix.authAPI.services;
 import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 
+import com.remix.authAPI.dto.CursorPage;
+import com.remix.authAPI.dto.UserCredentials;
+import com.remix.authAPI.dto.UserSummary;
 import com.remix.authAPI.entity.User;
+import com.remix.authAPI.exception.AuthenticationFailedException;
 import com.remix.authAPI.repositories.UserRepository;
 
 import java.util.List;
-import java.security.SecureRandom;
+
 
 @Service
 public class UserService {
@@ -27,19 +35,58 @@ public class UserService {
 
     @Autowired
     private EmailService emailService;
+
+    @Autowired
+    private TwoFactorChallengeStore twoFactorChallengeStore;
     
     @Value("${app.security.max-login-attempts}")
     private Integer maxLoginAttempts;
 
-    @Value("${app.security.two-factor-code-length}")
-    private int twoFactorCodeLength;
+    @Autowired
+    private TwoFactorCodeGenerator twoFactorCodeGenerator;
+
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.users.page.max-limit:500}")
+    private int maxPageLimit;
 
     public UserService(UserRepository userRepository) {
         this.userRepository = userRepository;
     }
 
-    public List<User> findAll() {
-        return userRepository.findAll();
+    /**
+     * Page d'utilisateurs après l'identifiant {@code afterId} (exclu). Une ligne de plus
+     * est lue pour savoir s'il existe une page suivante, sans COUNT.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<UserSummary> findPage(Long afterId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxPageLimit));
+        List<UserSummary> users = userRepository.findSummariesAfter(
+            afterId == null ? 0L : afterId, Limit.of(pageSize + 1));
+
+        boolean hasMore = users.size() > pageSize;
+        List<UserSummary> items = hasMore ? users.subList(0, pageSize) : users;
+        Long nextCursor = items.isEmpty() ? null : items.get(items.size() - 1).id();
+        return new CursorPage<>(items, pageSize, hasMore ? nextCursor : null, hasMore);
+    }
+
+    /**
+     * Parcourt tous les utilisateurs depuis un curseur base, à mémoire constante :
+     * les projections ne sont pas gérées par le contexte de persistance.
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<UserSummary> consumer) {
+        try (Stream<UserSummary> users = userRepository.streamSummaries()) {
+            users.forEach(consumer);
+        }
+    }
+
+    public Optional<UserSummary> findSummaryById(Long id) {
+        return userRepository.findSummaryById(id);
     }
 
     public Optional<User> findById(Long id) {
@@ -60,59 +107,10 @@ public class UserService {
         userRepository.deleteById(id);
     }
 
-    @Transactional
-    public boolean isLoginAttemptsExceeded(String email) {
-        Optional<User> userOpt = userRepository.findByEmail(email);
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            return user.getFailedLoginAttempts() >= maxLoginAttempts;
-        }
-        return false;
-    }
-
-    @Transactional
-    public void incrementFailedLoginAttempts(String email) {
-        userRepository.findByEmail(email).ifPresent(user -> {
-            user.setFailedLoginAttempts(user.getFailedLoginAttempts() + 1);
-            user.setLastFailedLogin(LocalDateTime.now());
-            
-            if (isLoginAttemptsExceeded(email)) {
-                user.setAccountLocked(true);
-                user.setAccountLockedUntil(LocalDateTime.now().plusHours(1)); // Verrouillage pour 1 heure
-            }
-            
-            userRepository.save(user);
-        });
-    }
-
-    @Transactional
-    public void resetFailedLoginAttempts(String email) {
-        userRepository.findByEmail(email).ifPresent(user -> {
-            user.setFailedLoginAttempts(0);
-            user.setLastFailedLogin(null);
-            user.setAccountLocked(false);
-            user.setAccountLockedUntil(null);
-            userRepository.save(user);
-        });
-    }
-
     @Transactional(readOnly = true)
-    public boolean isAccountLocked(String email) {
-        return userRepository.findByEmail(email)
-            .map(user -> {
-                if (user.getAccountLocked() && user.getAccountLockedUntil() != null) {
-                    // Si la période de verrouillage est passée, déverrouille le compte
-                    if (LocalDateTime.now().isAfter(user.getAccountLockedUntil())) {
-                        user.setAccountLocked(false);
-                        user.setAccountLockedUntil(null);
-                        user.setFailedLoginAttempts(0);
-                        userRepository.save(user);
-                        return false;
-                    }
-                    return true;
-                }
-                return false;
-            })
+    public boolean isLoginAttemptsExceeded(String email) {
+        return userRepository.findFailedLoginAttemptsByEmail(email)
+            .map(attempts -> attempts >= maxLoginAttempts)
             .orElse(false);
     }
 
@@ -121,28 +119,33 @@ public class UserService {
         return userRepository.save(user);
     }
 
-     @Transactional
+    /**
+     * Pas de @Transactional : le hachage (et son attente dans la file du BoundedPasswordEncoder)
+     * se fait sans connexion JDBC ; seule l'écriture est transactionnelle.
+     */
     public User registerUser(User user) {
-        if (userRepository.findByEmail(user.getEmail()).isPresent()) {
+        if (userRepository.existsByEmail(user.getEmail())) {
             throw new RuntimeException("L'email existe déjà");
         }
 
         // Encoder le mot de passe
         user.setPasswordHash(passwordEncoder.encode(user.getPasswordHash()));
-        
-        // Générer le token de vérification
-        String verificationToken = UUID.randomUUID().toString();
-        user.setEmailVerificationToken(verificationToken);
-        user.setEmailVerificationExpiry(LocalDateTime.now().plusHours(24));
-        
-        // Sauvegarder l'utilisateur
-        User savedUser = userRepository.save(user);
 
-        // Envoyer l'email de vérification
-        String verificationLink = "http://localhost:8080/api/auth/verify-email?token=" + verificationToken;
-        emailService.sendVerificationEmail(user.getEmail(), verificationLink);
+        return transactionTemplate.execute(status -> {
+            // Générer le token de vérification
+            String verificationToken = UUID.randomUUID().toString();
+            user.setEmailVerificationTokenHash(TokenDigest.sha256(verificationToken));
+            user.setEmailVerificationExpiry(LocalDateTime.now().plusHours(24));
+
+            // Sauvegarder l'utilisateur
+            User savedUser = userRepository.save(user);
+
+            // Envoyer l'email de vérification
+            String verificationLink = "http://localhost:8080/api/auth/verify-email?token=" + verificationToken;
+            emailService.sendVerificationEmail(user.getEmail(), verificationLink);
 
-        return savedUser;
+            return savedUser;
+        });
     }
 
     @Transactional
@@ -159,7 +162,7 @@ public class UserService {
             
             // Générer un nouveau token
             String newToken = UUID.randomUUID().toString();
-            user.setEmailVerificationToken(newToken);
+            user.setEmailVerificationTokenHash(TokenDigest.sha256(newToken));
             user.setEmailVerificationExpiry(LocalDateTime.now().plusHours(24));
             userRepository.save(user);
             
@@ -172,130 +175,222 @@ public class UserService {
 
         // Marquer l'email comme vérifié et supprimer le token
         user.setIsEmailVerified(true);
-        user.setEmailVerificationToken(null);
+        user.setEmailVerificationTokenHash(null);
         user.setEmailVerificationExpiry(null);
         userRepository.save(user);
     }
 
+    /**
+     * Nouveau lien de vérification pour un compte non vérifié (comptes importés sans email,
+     * lien perdu) : le token précédent est remplacé. Sans effet pour un email inconnu ou déjà
+     * vérifié, la réponse ne révélant pas l'existence du compte.
+     */
     @Transactional
-    public User authenticateUser(String email, String password) {
-        User user = userRepository.findByEmail(email)
-            .orElseThrow(() -> new RuntimeException("Email ou mot de passe incorrect"));
+    public void resendVerificationEmail(String email) {
+        userRepository.findByEmail(email)
+            .filter(user -> !Boolean.TRUE.equals(user.getIsEmailVerified()))
+            .ifPresent(user -> {
+                String verificationToken = UUID.randomUUID().toString();
+                user.setEmailVerificationTokenHash(TokenDigest.sha256(verificationToken));
+                user.setEmailVerificationExpiry(LocalDateTime.now().plusHours(24));
+                userRepository.save(user);
+
+                String verificationLink = "http://localhost:8080/api/auth/verify-email?token=" + verificationToken;
+                emailService.sendVerificationEmail(user.getEmail(), verificationLink);
+            });
+    }
 
-        // Vérifier si le compte est verrouillé
-        if (isAccountLocked(email)) {
-            throw new RuntimeException("Compte temporairement verrouillé. Veuillez réessayer plus tard.");
+    /**
+     * Vérifie les identifiants à partir d'un seul chargement de l'utilisateur.
+     * En cas de succès, remet les compteurs à zéro uniquement s'il y a quelque chose à effacer.
+     * Pas de transaction englobante : lecture et UPDATE ciblés ont chacun la leur, aucune connexion
+     * n'est retenue pendant le hachage.
+     */
+    public UserCredentials authenticateUser(String email, String password) {
+        long start = System.nanoTime();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            UserCredentials user = checkCredentials(AuthMetrics.Operation.AUTHENTICATE, email, password, now);
+            resetLoginFailures(AuthMetrics.Operation.AUTHENTICATE, user, now);
+            authMetrics.success(AuthMetrics.Operation.AUTHENTICATE, start);
+            return user;
+        } catch (RuntimeException e) {
+            authMetrics.failure(AuthMetrics.Operation.AUTHENTICATE, e, start);
+            throw e;
         }
+    }
+
+    /**
+     * Machine d'états de la connexion : verrouillage, email vérifié, mot de passe.
+     * Un échec de mot de passe est enregistré par un seul UPDATE atomique ; aucune écriture en cas de succès.
+     * Appelée hors transaction : la connexion de la lecture est rendue au pool avant le hachage.
+     */
+    private UserCredentials checkCredentials(AuthMetrics.Operation operation, String email, String password,
+                                             LocalDateTime now) {
+        long phaseStart = System.nanoTime();
+        Optional<UserCredentials> found = userRepository.findCredentialsByEmail(email);
+        phaseStart = authMetrics.phase(operation, AuthMetrics.Phase.LOOKUP, phaseStart);
+        UserCredentials user = found.orElseThrow(() -> new AuthenticationFailedException(
+            AuthenticationFailedException.Reason.UNKNOWN_USER, "Email ou mot de passe incorrect"));
+
+        // Vérifier si le compte est verrouillé
+        checkNotLocked(user, now, "Compte temporairement verrouillé. Veuillez réessayer plus tard.");
 
         // Vérifier si l'email est vérifié
-        if (!user.getIsEmailVerified()) {
-            throw new RuntimeException("Veuillez vérifier votre email avant de vous connecter");
+        if (!user.isEmailVerified()) {
+            throw new AuthenticationFailedException(AuthenticationFailedException.Reason.EMAIL_NOT_VERIFIED,
+                "Veuillez vérifier votre email avant de vous connecter");
         }
 
         // Vérifier le mot de passe
-        if (!passwordEncoder.matches(password, user.getPasswordHash())) {
+        boolean matches = passwordEncoder.matches(password, user.passwordHash());
+        phaseStart = authMetrics.phase(operation, AuthMetrics.Phase.PASSWORD_CHECK, phaseStart);
+        if (!matches) {
             incrementFailedLoginAttempts(email);
-            throw new RuntimeException("Email ou mot de passe incorrect");
+            authMetrics.phase(operation, AuthMetrics.Phase.RECORD_FAILURE, phaseStart);
+            throw new AuthenticationFailedException(AuthenticationFailedException.Reason.BAD_PASSWORD,
+                "Email ou mot de passe incorrect");
         }
 
-        // Réinitialiser les tentatives de connexion en cas de succès
-        resetFailedLoginAttempts(email);
-        
         return user;
     }
 
+    private void resetLoginFailures(AuthMetrics.Operation operation, UserCredentials user, LocalDateTime now) {
+        if (user.failedLoginAttempts() > 0 || Boolean.TRUE.equals(user.accountLocked())) {
+            long phaseStart = System.nanoTime();
+            userRepository.resetLoginFailures(user.id(), now);
+            authMetrics.phase(operation, AuthMetrics.Phase.RESET_COUNTERS, phaseStart);
+        }
+    }
 
-    private String generateTwoFactorCode() {
-        SecureRandom random = new SecureRandom();
-        StringBuilder code = new StringBuilder();
-        for (int i = 0; i < twoFactorCodeLength; i++) {
-            code.append(random.nextInt(10));
+    /**
+     * Lève une exception si le compte est verrouillé. Un verrouillage expiré est ignoré :
+     * la prochaine écriture (succès ou échec) le lève.
+     */
+    private void checkNotLocked(UserCredentials user, LocalDateTime now, String message) {
+        if (Boolean.TRUE.equals(user.accountLocked()) && user.accountLockedUntil() != null
+            && !now.isAfter(user.accountLockedUntil())) {
+            throw new AuthenticationFailedException(AuthenticationFailedException.Reason.LOCKED, message);
         }
-        return code.toString();
     }
 
+    /**
+     * Incrément atomique des échecs de connexion, sans chargement de l'entité.
+     */
     @Transactional
-    public User initiateLogin(String email, String password) {
-        User user = authenticateUser(email, password);
-        
-        // Générer et sauvegarder le code 2FA
-        String twoFactorCode = generateTwoFactorCode();
-        user.setTwoFactorCode(twoFactorCode);
-        user.setTwoFactorCodeExpiry(LocalDateTime.now().plusMinutes(5));
-        userRepository.save(user);
-        
-        // Envoyer le code par email
-        emailService.send2FACode(user.getEmail(), twoFactorCode);
-        
-        return user;
+    public UserRepository.FailedAttempts incrementFailedLoginAttempts(String email) {
+        LocalDateTime now = LocalDateTime.now();
+        UserRepository.FailedAttempts state = userRepository
+            .incrementFailedLoginAttempts(email, maxLoginAttempts, now, now.plusHours(1))
+            .orElseThrow(() -> new AuthenticationFailedException(
+                AuthenticationFailedException.Reason.UNKNOWN_USER, "Email ou mot de passe incorrect"));
+
+        // Seul l'incrément qui atteint le maximum verrouille : un verrouillage compté une fois
+        if (state.getFailedAttempts() == maxLoginAttempts) {
+            authMetrics.lockout(AuthMetrics.LockoutCause.PASSWORD);
+        }
+        return state;
     }
 
+    /**
+     * Incrément atomique des échecs 2FA. Seul l'appel qui verrouille le compte envoie l'email de déblocage.
+     */
     @Transactional
-    public User verifyTwoFactorCode(String email, String code) {
-        User user = userRepository.findByEmail(email)
-            .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
-
-        if (isAccountLocked(email)) {
-            throw new RuntimeException("Compte temporairement verrouillé. Vérifiez vos emails pour le débloquer.");
+    public UserRepository.FailedAttempts increment2FAAttempts(String email) {
+        LocalDateTime now = LocalDateTime.now();
+        // Seule l'empreinte est écrite ; le token en clair part dans l'email si cet appel verrouille
+        String unlockToken = UUID.randomUUID().toString();
+        UserRepository.FailedAttempts state = userRepository
+            .increment2FAAttempts(email, maxLoginAttempts, now, now.plusHours(1), TokenDigest.sha256(unlockToken))
+            .orElseThrow(() -> new AuthenticationFailedException(
+                AuthenticationFailedException.Reason.UNKNOWN_USER, "Utilisateur non trouvé"));
+
+        if (state.getFailedAttempts() == maxLoginAttempts) {
+            authMetrics.lockout(AuthMetrics.LockoutCause.TWO_FACTOR);
+            String unlockLink = "http://localhost:8080/api/auth/unlock-account?token=" + unlockToken;
+            emailService.sendUnlockEmail(email, unlockLink);
         }
+        return state;
+    }
 
-        if (user.getTwoFactorCode() == null || user.getTwoFactorCodeExpiry() == null) {
-            throw new RuntimeException("Aucun code 2FA n'a été généré");
+    // Hachage hors transaction (voir authenticateUser) ; les écritures qui suivent en forment une seule
+    public UserCredentials initiateLogin(String email, String password) {
+        long start = System.nanoTime();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            UserCredentials user = checkCredentials(AuthMetrics.Operation.INITIATE, email, password, now);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                resetLoginFailures(AuthMetrics.Operation.INITIATE, user, now);
+
+                // Le défi 2FA vit dans son propre stockage : aucune écriture sur users pour une connexion normale
+                long phaseStart = System.nanoTime();
+                String twoFactorCode = twoFactorCodeGenerator.generate();
+                twoFactorChallengeStore.issue(user.email(), twoFactorCode, now.plusMinutes(5));
+                phaseStart = authMetrics.phase(AuthMetrics.Operation.INITIATE, AuthMetrics.Phase.CHALLENGE, phaseStart);
+
+                // Envoyer le code par email
+                emailService.send2FACode(user.email(), twoFactorCode);
+                authMetrics.phase(AuthMetrics.Operation.INITIATE, AuthMetrics.Phase.EMAIL, phaseStart);
+            });
+
+            authMetrics.success(AuthMetrics.Operation.INITIATE, start);
+            return user;
+        } catch (RuntimeException e) {
+            authMetrics.failure(AuthMetrics.Operation.INITIATE, e, start);
+            throw e;
         }
+    }
 
-        if (LocalDateTime.now().isAfter(user.getTwoFactorCodeExpiry())) {
-            throw new RuntimeException("Le code 2FA a expiré");
+    @Transactional(noRollbackFor = AuthenticationFailedException.class)
+    public UserCredentials verifyTwoFactorCode(String email, String code) {
+        long start = System.nanoTime();
+        try {
+            UserCredentials user = checkTwoFactorCode(email, code, LocalDateTime.now());
+            authMetrics.success(AuthMetrics.Operation.VERIFY, start);
+            return user;
+        } catch (RuntimeException e) {
+            authMetrics.failure(AuthMetrics.Operation.VERIFY, e, start);
+            throw e;
         }
+    }
 
-        if (!user.getTwoFactorCode().equals(code)) {
-            increment2FAAttempts(email);
-            throw new RuntimeException("Code 2FA invalide");
-        }
+    private UserCredentials checkTwoFactorCode(String email, String code, LocalDateTime now) {
+        AuthMetrics.Operation operation = AuthMetrics.Operation.VERIFY;
+        long phaseStart = System.nanoTime();
+        Optional<UserCredentials> found = userRepository.findCredentialsByEmail(email);
+        phaseStart = authMetrics.phase(operation, AuthMetrics.Phase.LOOKUP, phaseStart);
+        UserCredentials user = found.orElseThrow(() -> new AuthenticationFailedException(
+            AuthenticationFailedException.Reason.UNKNOWN_USER, "Utilisateur non trouvé"));
 
-        // Réinitialiser les tentatives en cas de succès
-        reset2FAAttempts(email);
-        resetFailedLoginAttempts(email);
+        checkNotLocked(user, now, "Compte temporairement verrouillé. Vérifiez vos emails pour le débloquer.");
 
-        // Nettoyer le code 2FA après utilisation
-        user.setTwoFactorCode(null);
-        user.setTwoFactorCodeExpiry(null);
-        return userRepository.save(user);
-    }
+        TwoFactorChallengeStore.Challenge challenge = twoFactorChallengeStore.find(email)
+            .orElseThrow(() -> new AuthenticationFailedException(
+                AuthenticationFailedException.Reason.NO_CODE, "Aucun code 2FA n'a été généré"));
 
-    @Transactional
-    public void increment2FAAttempts(String email) {
-        userRepository.findByEmail(email).ifPresent(user -> {
-            user.setFailed2FAAttempts(user.getFailed2FAAttempts() + 1);
-            user.setLastFailed2FA(LocalDateTime.now());
-            
-            if (user.getFailed2FAAttempts() >= maxLoginAttempts) {
-                user.setAccountLocked(true);
-                user.setAccountLockedUntil(LocalDateTime.now().plusHours(1));
-                // Envoyer un email de réinitialisation
-                sendUnlockEmail(user.getEmail());
-            }
-            
-            userRepository.save(user);
-        });
-    }
+        if (now.isAfter(challenge.expiresAt())) {
+            twoFactorChallengeStore.remove(email);
+            throw new AuthenticationFailedException(AuthenticationFailedException.Reason.EXPIRED_CODE,
+                "Le code 2FA a expiré");
+        }
 
-    @Transactional
-    public void reset2FAAttempts(String email) {
-        userRepository.findByEmail(email).ifPresent(user -> {
-            user.setFailed2FAAttempts(0);
-            user.setLastFailed2FA(null);
-            userRepository.save(user);
-        });
-    }
+        boolean matches = challenge.code().equals(code);
+        phaseStart = authMetrics.phase(operation, AuthMetrics.Phase.CODE_CHECK, phaseStart);
+        if (!matches) {
+            increment2FAAttempts(email);
+            authMetrics.phase(operation, AuthMetrics.Phase.RECORD_FAILURE, phaseStart);
+            throw new AuthenticationFailedException(AuthenticationFailedException.Reason.BAD_CODE, "Code 2FA invalide");
+        }
 
-    private void sendUnlockEmail(String email) {
-        String unlockToken = UUID.randomUUID().toString();
-        User user = userRepository.findByEmail(email).orElseThrow();
-        user.setUnlockToken(unlockToken);
-        userRepository.save(user);
-        
-        String unlockLink = "http://localhost:8080/api/auth/unlock-account?token=" + unlockToken;
-        emailService.sendUnlockEmail(email, unlockLink);
+        // Code à usage unique ; les compteurs ne sont remis à zéro que s'ils ont bougé
+        twoFactorChallengeStore.remove(email);
+        if (user.failed2FAAttempts() > 0 || user.failedLoginAttempts() > 0
+            || Boolean.TRUE.equals(user.accountLocked())) {
+            userRepository.resetAllFailures(user.id(), now);
+            authMetrics.phase(operation, AuthMetrics.Phase.RESET_COUNTERS, phaseStart);
+        }
+        return user;
     }
 
     @Transactional
@@ -307,7 +402,7 @@ public class UserService {
         user.setAccountLockedUntil(null);
         user.setFailedLoginAttempts(0);
         user.setFailed2FAAttempts(0);
-        user.setUnlockToken(null);
+        user.setUnlockTokenHash(null);
         userRepository.save(user);
     }
 } 
\ No newline at end of file
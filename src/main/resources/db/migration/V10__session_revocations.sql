@@ -0,0 +1,14 @@
+-- Révocations des tokens signés (app.session.token-mode=signed), partagées entre instances :
+-- chaque instance les relit par updated_at et les garde en mémoire jusqu'à keep_until.
+-- scope : SESSION (subject = sid), USER (subject = id utilisateur) ou ALL (subject = '*')
+CREATE TABLE session_revocations (
+    scope VARCHAR(8) NOT NULL,
+    subject VARCHAR(64) NOT NULL,
+    revoked_before TIMESTAMP,
+    keep_until TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (scope, subject)
+);
+
+CREATE INDEX idx_session_revocations_updated_at ON session_revocations (updated_at);
+CREATE INDEX idx_session_revocations_keep_until ON session_revocations (keep_until);
@@ -0,0 +1,61 @@
+-- Rattrapage des bases créées avant Flyway (database/script.sql puis ddl-auto=update), marquées en V1.
+-- Sans effet sur une base créée par V1 : chaque instruction est idempotente.
+
+-- Tables apparues après le script.sql d'origine (créées jusqu'ici par ddl-auto=update)
+CREATE TABLE IF NOT EXISTS two_factor_challenges (
+    email VARCHAR(255) PRIMARY KEY,
+    code VARCHAR(12) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    status VARCHAR(16) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error TEXT,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    sent_at TIMESTAMP
+);
+
+-- Colonnes attendues par les entités, absentes de script.sql
+ALTER TABLE users ADD COLUMN IF NOT EXISTS failed_2fa_attempts INTEGER DEFAULT 0;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS last_failed_2fa TIMESTAMP;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS unlock_token VARCHAR(255);
+ALTER TABLE sessions ADD COLUMN IF NOT EXISTS last_activity TIMESTAMP;
+
+-- Colonnes jamais écrites par l'application (noms mal orthographiés de script.sql)
+-- ou abandonnées (défi 2FA déplacé dans two_factor_challenges)
+ALTER TABLE users DROP COLUMN IF EXISTS faild_2fa_attempts;
+ALTER TABLE users DROP COLUMN IF EXISTS last_failed_2fa_login;
+ALTER TABLE users DROP COLUMN IF EXISTS two_factor_code;
+ALTER TABLE users DROP COLUMN IF EXISTS two_factor_code_expiry;
+ALTER TABLE users DROP COLUMN IF EXISTS two_factor_expiry;
+
+-- Identifiants users/sessions en BIGSERIAL ou en colonne d'identité (ddl-auto) vers des séquences
+-- incrémentées de 50 (ancien database/migration-sequence-ids.sql)
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE sessions ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS users_id_seq;
+CREATE SEQUENCE IF NOT EXISTS sessions_id_seq;
+
+ALTER SEQUENCE users_id_seq INCREMENT BY 50 OWNED BY users.id;
+ALTER SEQUENCE sessions_id_seq INCREMENT BY 50 OWNED BY sessions.id;
+
+-- Prochain bloc au-dessus des identifiants existants, sans jamais reculer
+-- (une instance encore en marche peut détenir le bloc courant)
+SELECT setval('users_id_seq', GREATEST(
+    (SELECT COALESCE(MAX(id), 0) + 1 FROM users),
+    (SELECT CASE WHEN is_called THEN last_value + 50 ELSE last_value END FROM users_id_seq)), false);
+SELECT setval('sessions_id_seq', GREATEST(
+    (SELECT COALESCE(MAX(id), 0) + 1 FROM sessions),
+    (SELECT CASE WHEN is_called THEN last_value + 50 ELSE last_value END FROM sessions_id_seq)), false);
+
+-- Les INSERT hors Hibernate (import en masse, scripts) consomment un bloc par appel à nextval
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_id_seq');
+ALTER TABLE sessions ALTER COLUMN id SET DEFAULT nextval('sessions_id_seq');
@@ -0,0 +1,26 @@
+-- Index des recherches fréquentes. CONCURRENTLY : pas de verrou d'écriture pendant la construction
+-- sur une base en service (Flyway exécute alors ce script hors transaction).
+-- Les recherches par token de session et par email passent par les contraintes UNIQUE.
+
+-- Balayage des sessions expirées (findExpiredSessionIds) : id en seconde colonne, parcours d'index seul
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sessions_expires_at ON sessions (expires_at, id);
+
+-- Sessions d'un utilisateur (déconnexion globale, ON DELETE CASCADE depuis users)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sessions_user_id ON sessions (user_id);
+
+-- Tokens à usage unique : presque toujours NULL, seules les lignes en attente sont indexées
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email_verification_token
+    ON users (email_verification_token) WHERE email_verification_token IS NOT NULL;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_unlock_token
+    ON users (unlock_token) WHERE unlock_token IS NOT NULL;
+
+-- Purge des défis 2FA expirés
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_two_factor_challenges_expires_at ON two_factor_challenges (expires_at);
+
+-- Relais de l'outbox : seuls les messages en attente, dans l'ordre de lecture
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_email_outbox_pending
+    ON email_outbox (next_attempt_at, id) WHERE status = 'PENDING';
+
+-- Doublons des index des contraintes UNIQUE (script.sql) : écritures en plus, aucune lecture
+DROP INDEX CONCURRENTLY IF EXISTS idx_sessions_token;
+DROP INDEX CONCURRENTLY IF EXISTS idx_users_email;
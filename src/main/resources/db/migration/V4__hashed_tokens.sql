@@ -0,0 +1,16 @@
+-- Tokens stockés sous forme d'empreinte SHA-256 (32 octets) au lieu du token en clair :
+-- une fuite de la base n'expose aucune session ni aucun lien de vérification ou de déblocage utilisable.
+-- Les tokens déjà émis restent valides : l'empreinte est calculée ici comme dans TokenDigest.
+-- Étape 1/3 : colonnes ajoutées puis remplies, les colonnes en clair deviennent facultatives
+-- (l'application n'écrit plus que l'empreinte). Index en V5, contraintes et suppressions en V6.
+
+ALTER TABLE sessions ADD COLUMN token_hash BYTEA;
+ALTER TABLE sessions ALTER COLUMN token DROP NOT NULL;
+UPDATE sessions SET token_hash = sha256(convert_to(token, 'UTF8'));
+
+ALTER TABLE users ADD COLUMN email_verification_token_hash BYTEA;
+ALTER TABLE users ADD COLUMN unlock_token_hash BYTEA;
+UPDATE users SET
+    email_verification_token_hash = sha256(convert_to(email_verification_token, 'UTF8')),
+    unlock_token_hash = sha256(convert_to(unlock_token, 'UTF8'))
+WHERE email_verification_token IS NOT NULL OR unlock_token IS NOT NULL;
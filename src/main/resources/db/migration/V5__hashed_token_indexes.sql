@@ -0,0 +1,9 @@
+-- Étape 2/3 : index des empreintes construits sans verrou d'écriture (hors transaction, comme V3).
+-- L'index unique des sessions devient la contrainte UNIQUE en V6.
+
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS sessions_token_hash_key ON sessions (token_hash);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email_verification_token_hash
+    ON users (email_verification_token_hash) WHERE email_verification_token_hash IS NOT NULL;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_unlock_token_hash
+    ON users (unlock_token_hash) WHERE unlock_token_hash IS NOT NULL;
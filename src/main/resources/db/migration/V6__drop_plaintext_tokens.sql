@@ -0,0 +1,20 @@
+-- Étape 3/3 : contraintes sur les empreintes et suppression des tokens en clair.
+-- Lignes écrites entre V4 et ici par une instance encore sur l'ancienne version : empreinte manquante.
+UPDATE sessions SET token_hash = sha256(convert_to(token, 'UTF8')) WHERE token_hash IS NULL;
+UPDATE users SET email_verification_token_hash = sha256(convert_to(email_verification_token, 'UTF8'))
+WHERE email_verification_token_hash IS NULL AND email_verification_token IS NOT NULL;
+UPDATE users SET unlock_token_hash = sha256(convert_to(unlock_token, 'UTF8'))
+WHERE unlock_token_hash IS NULL AND unlock_token IS NOT NULL;
+
+-- Une seule instruction : NOT NULL et CHECK vérifiés en un parcours, la contrainte UNIQUE
+-- reprend l'index construit en V5. La suppression de token emporte sa contrainte UNIQUE.
+ALTER TABLE sessions
+    ALTER COLUMN token_hash SET NOT NULL,
+    ADD CONSTRAINT sessions_token_hash_length CHECK (octet_length(token_hash) = 32),
+    ADD CONSTRAINT sessions_token_hash_key UNIQUE USING INDEX sessions_token_hash_key,
+    DROP COLUMN token;
+
+-- Supprime aussi les index partiels de V3
+ALTER TABLE users
+    DROP COLUMN email_verification_token,
+    DROP COLUMN unlock_token;
@@ -0,0 +1,6 @@
+-- Relais de l'outbox : les messages réservés (IN_FLIGHT, bail dans next_attempt_at) sont relus
+-- à l'expiration du bail, l'index partiel couvre donc les deux états
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_email_outbox_due
+    ON email_outbox (next_attempt_at, id) WHERE status IN ('PENDING', 'IN_FLIGHT');
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_email_outbox_pending;
@@ -0,0 +1,3 @@
+-- Corps des emails effacé une fois le message envoyé ou abandonné : les liens et codes qu'il contient
+-- ne restent pas en base jusqu'à la purge. Suppression de contrainte seule, sans réécriture de la table.
+ALTER TABLE email_outbox ALTER COLUMN body DROP NOT NULL;
@@ -0,0 +1,3 @@
+-- Purge des messages terminés (SENT, FAILED) au-delà de la rétention, hors transaction comme V3
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_email_outbox_done
+    ON email_outbox (created_at) WHERE status IN ('SENT', 'FAILED');
@@ -0,0 +1,91 @@
+package com.remix.authAPI.benchmark;
+
+import com.remix.authAPI.dto.UserCredentials;
+import com.remix.authAPI.entity.User;
+import com.remix.authAPI.exception.AuthenticationFailedException;
+import com.remix.authAPI.repositories.UserRepository;
+import com.remix.authAPI.services.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code UserService.authenticateUser} sur PostgreSQL embarqué : succès, mauvais mot de passe
+ * (UPDATE atomique du compteur) et compte verrouillé (court-circuit avant BCrypt).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AuthenticationBenchmark {
+
+    private static final String PASSWORD = "MotDePasse123!";
+    private static final String VALID = "auth-valid@example.com";
+    private static final String LOCKED = "auth-locked@example.com";
+
+    @Param({ "4", "10" })
+    public int strength;
+
+    private BenchmarkEnvironment environment;
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void start() {
+        environment = BenchmarkEnvironment.start(Map.of(
+            "app.security.hashing.strength", String.valueOf(strength),
+            // Les échecs répétés ne doivent pas verrouiller le compte du cas « succès »
+            "app.security.max-login-attempts", String.valueOf(Integer.MAX_VALUE)
+        ));
+        userService = environment.bean(UserService.class);
+        UserRepository userRepository = environment.bean(UserRepository.class);
+        String hash = environment.bean(PasswordEncoder.class).encode(PASSWORD);
+
+        userRepository.save(user(VALID, hash));
+        User locked = user(LOCKED, hash);
+        locked.setAccountLocked(true);
+        locked.setAccountLockedUntil(LocalDateTime.now().plusYears(1));
+        userRepository.save(locked);
+    }
+
+    private static User user(String email, String hash) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPasswordHash(hash);
+        user.setIsEmailVerified(true);
+        return user;
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        environment.close();
+    }
+
+    @Benchmark
+    public UserCredentials success() {
+        return userService.authenticateUser(VALID, PASSWORD);
+    }
+
+    @Benchmark
+    public Object badPassword() {
+        try {
+            return userService.authenticateUser(VALID, "mauvais");
+        } catch (AuthenticationFailedException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object locked() {
+        try {
+            return userService.authenticateUser(LOCKED, PASSWORD);
+        } catch (AuthenticationFailedException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.remix.authAPI.benchmark;
+
+import com.remix.authAPI.AuthApiApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Application complète (sans serveur web) sur un PostgreSQL embarqué, pour les benchmarks
+ * qui mesurent les vrais chemins JPA/JDBC. Une instance par essai JMH.
+ */
+public final class BenchmarkEnvironment implements AutoCloseable {
+
+    private final EmbeddedPostgres postgres;
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkEnvironment(EmbeddedPostgres postgres, ConfigurableApplicationContext context) {
+        this.postgres = postgres;
+        this.context = context;
+    }
+
+    public static BenchmarkEnvironment start(Map<String, Object> overrides) {
+        EmbeddedPostgres postgres;
+        try {
+            postgres = EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Impossible de démarrer PostgreSQL embarqué", e);
+        }
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+        properties.put("spring.datasource.username", "postgres");
+        properties.put("spring.datasource.password", "postgres");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("logging.level.root", "WARN");
+        properties.putAll(overrides);
+
+        // Arguments de ligne de commande : prioritaires sur application.properties
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AuthApiApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new));
+        return new BenchmarkEnvironment(postgres, context);
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        postgres.close();
+    }
+}
@@ -0,0 +1,79 @@
+package com.remix.authAPI.benchmark;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.remix.authAPI.services.EmailTemplate;
+import com.remix.authAPI.services.SmtpTransportPool;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Messages/seconde contre un serveur SMTP local (GreenMail).
+ * Les deux variantes envoient le même HTML (template de production) : seul le transport diffère.
+ * {@code direct} : une connexion SMTP par message (comportement d'origine).
+ * {@code pooled} : connexions maintenues ouvertes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(4)
+public class EmailThroughputBenchmark {
+
+    private GreenMail greenMail;
+    private JavaMailSenderImpl mailSender;
+    private SmtpTransportPool transportPool;
+    private EmailTemplate template;
+
+    @Setup(Level.Trial)
+    public void startServer() {
+        greenMail = new GreenMail(ServerSetupTest.SMTP.dynamicPort());
+        greenMail.start();
+
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(greenMail.getSmtp().getPort());
+
+        transportPool = new SmtpTransportPool(mailSender, true, 4, 30);
+        template = EmailTemplate.load("templates/email/two-factor-code.html");
+    }
+
+    @TearDown(Level.Iteration)
+    public void purge() throws Exception {
+        greenMail.purgeEmailFromAllMailboxes();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        greenMail.stop();
+    }
+
+    @Benchmark
+    public void direct() throws MessagingException {
+        MimeMessage message = message(template.render("code", "123456"));
+        mailSender.send(message);
+    }
+
+    @Benchmark
+    public void pooled() throws MessagingException {
+        MimeMessage message = message(template.render("code", "123456"));
+        transportPool.send(message);
+    }
+
+    private MimeMessage message(String html) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "utf-8");
+        helper.setFrom("noreply@example.com");
+        helper.setTo("bench@example.com");
+        helper.setSubject("Code de vérification pour votre connexion");
+        helper.setText(html, true);
+        return message;
+    }
+}
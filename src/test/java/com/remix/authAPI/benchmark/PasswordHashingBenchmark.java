@@ -0,0 +1,56 @@
+package com.remix.authAPI.benchmark;
+
+import com.remix.authAPI.config.BoundedPasswordEncoder;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de BCrypt selon la force, en direct et via le pool borné de l'application.
+ * Sert à choisir {@code app.security.hashing.strength} en fonction du débit visé.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    private static final String PASSWORD = "MotDePasse123!";
+
+    @Param({ "4", "8", "10", "12" })
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private BoundedPasswordEncoder boundedEncoder;
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        boundedEncoder = new BoundedPasswordEncoder(encoder, Runtime.getRuntime().availableProcessors(), 64, 1, 5000);
+        hash = encoder.encode(PASSWORD);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        boundedEncoder.close();
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    public boolean boundedMatches() {
+        return boundedEncoder.matches(PASSWORD, hash);
+    }
+}
@@ -0,0 +1,95 @@
+package com.remix.authAPI.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.remix.authAPI.dto.SessionView;
+import com.remix.authAPI.entity.Session;
+import com.remix.authAPI.entity.User;
+import com.remix.authAPI.repositories.SessionRepository;
+import com.remix.authAPI.repositories.UserRepository;
+import com.remix.authAPI.services.SessionService;
+import com.remix.authAPI.services.TokenDigest;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecture par requête : entité complète contre projection, pour GET /api/users/{id}
+ * (lecture + sérialisation JSON) et pour la validation de session.
+ * L'allocation par opération est la métrique {@code gc.alloc.rate.norm} du profileur gc
+ * (activé par le profil Maven benchmark).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProjectionAllocationBenchmark {
+
+    private static final int USERS = 1_000;
+
+    private BenchmarkEnvironment environment;
+    private UserRepository userRepository;
+    private SessionRepository sessionRepository;
+    private ObjectMapper objectMapper;
+
+    private long[] userIds;
+    private String[] tokens;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void start() {
+        environment = BenchmarkEnvironment.start(Map.of("app.session.expiry.enabled", "false"));
+        userRepository = environment.bean(UserRepository.class);
+        sessionRepository = environment.bean(SessionRepository.class);
+        objectMapper = environment.bean(ObjectMapper.class);
+        SessionService sessionService = environment.bean(SessionService.class);
+
+        userIds = new long[USERS];
+        tokens = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setEmail("bench-" + i + "@example.com");
+            user.setPasswordHash("$2a$10$abcdefghijklmnopqrstuuJ4G8b0CDhFvJKbLQZ7Vd3xDxbzoeq");
+            user.setIsEmailVerified(true);
+            user.setEmailVerificationTokenHash(TokenDigest.sha256("verification-token-" + i));
+            userIds[i] = userRepository.save(user).getId();
+            tokens[i] = sessionService.createSession(userIds[i]).getToken();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        environment.close();
+    }
+
+    private int nextIndex() {
+        next = (next + 1) % USERS;
+        return next;
+    }
+
+    @Benchmark
+    public byte[] userEntity() throws JsonProcessingException {
+        User user = userRepository.findById(userIds[nextIndex()]).orElseThrow();
+        return objectMapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] userProjection() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(userRepository.findSummaryById(userIds[nextIndex()]).orElseThrow());
+    }
+
+    @Benchmark
+    public Session sessionEntity() {
+        return sessionRepository.findByToken(tokens[nextIndex()]).orElseThrow();
+    }
+
+    @Benchmark
+    public SessionView sessionProjection() {
+        // Même coût de hachage que findByToken : seule la forme du résultat diffère
+        return sessionRepository.findViewByTokenHash(TokenDigest.sha256(tokens[nextIndex()])).orElseThrow();
+    }
+}
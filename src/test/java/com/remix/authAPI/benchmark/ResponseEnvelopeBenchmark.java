@@ -0,0 +1,62 @@
+package com.remix.authAPI.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.remix.authAPI.response.ResponseEnvelope;
+import com.remix.authAPI.response.ResponseHandler;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de l'enveloppe d'une réponse {@code validate} écrite dans un flux.
+ * {@code hashMap} : HashMap reconstruite puis introspectée par l'ObjectMapper (comportement d'origine).
+ * {@code envelope} : {@link ResponseEnvelope} immuable et writer préconstruit.
+ * {@code preSerialized} : octets constants. Comparer {@code gc.alloc.rate.norm} (profileur gc).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseEnvelopeBenchmark {
+
+    // Flux vide qui survit à close() (writeValue ferme la cible)
+    private final OutputStream out = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectWriter envelopeWriter = objectMapper.writerFor(ResponseEnvelope.class);
+    private final byte[] validBody = (byte[]) ResponseHandler.preSerializedSuccessResponse(true).getBody();
+
+    @Benchmark
+    public void hashMap() throws IOException {
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", Boolean.TRUE);
+        response.put("code", HttpStatus.OK.value());
+        response.put("status", HttpStatus.OK.getReasonPhrase());
+        objectMapper.writeValue(out, response);
+    }
+
+    @Benchmark
+    public void envelope() throws IOException {
+        envelopeWriter.writeValue(out, ResponseEnvelope.of(HttpStatus.OK, Boolean.TRUE, null, null));
+    }
+
+    @Benchmark
+    public void preSerialized() throws IOException {
+        out.write(validBody);
+    }
+}
@@ -0,0 +1,103 @@
+package com.remix.authAPI.benchmark;
+
+import com.remix.authAPI.entity.Session;
+import com.remix.authAPI.entity.User;
+import com.remix.authAPI.repositories.SessionRepository;
+import com.remix.authAPI.repositories.UserRepository;
+import com.remix.authAPI.services.SessionService;
+import com.remix.authAPI.services.TokenDigest;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insertions de sessions par seconde. {@code batchSize=1} reproduit le comportement d'avant
+ * (un aller-retour par INSERT, comme avec IDENTITY) ; {@code batchSize=50} active le batch JDBC
+ * que permettent les identifiants par séquence.
+ * <ul>
+ *   <li>{@code createSession} : une connexion, une transaction (suppression des anciennes sessions + insertion)</li>
+ *   <li>{@code insertBurst} : {@value #BURST} sessions dans une transaction (pic de connexions, import)</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SessionInsertBenchmark {
+
+    private static final int USERS = 1_000;
+    private static final int BURST = 500;
+
+    @Param({ "1", "50" })
+    public int batchSize;
+
+    private BenchmarkEnvironment environment;
+    private SessionService sessionService;
+    private SessionRepository sessionRepository;
+    private UserRepository userRepository;
+    private TransactionTemplate transactionTemplate;
+    private Long[] userIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void start() {
+        environment = BenchmarkEnvironment.start(Map.of(
+            "spring.jpa.properties.hibernate.jdbc.batch_size", String.valueOf(batchSize),
+            // Pas de suppression planifiée pendant la mesure
+            "app.session.expiry.enabled", "false"
+        ));
+        sessionService = environment.bean(SessionService.class);
+        sessionRepository = environment.bean(SessionRepository.class);
+        userRepository = environment.bean(UserRepository.class);
+        transactionTemplate = new TransactionTemplate(environment.bean(PlatformTransactionManager.class));
+
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setEmail("insert-bench-" + i + "@example.com");
+            user.setPasswordHash("non-utilisé");
+            user.setIsEmailVerified(true);
+            users.add(user);
+        }
+        userIds = userRepository.saveAll(users).stream().map(User::getId).toArray(Long[]::new);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        environment.close();
+    }
+
+    @Benchmark
+    public Session createSession() {
+        next = (next + 1) % USERS;
+        return sessionService.createSession(userIds[next]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public int insertBurst() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(10);
+            List<Session> sessions = new ArrayList<>(BURST);
+            for (int i = 0; i < BURST; i++) {
+                next = (next + 1) % USERS;
+                Session session = new Session();
+                session.setUser(userRepository.getReferenceById(userIds[next]));
+                session.setTokenHash(TokenDigest.sha256(UUID.randomUUID().toString()));
+                session.setExpiresAt(expiresAt);
+                sessions.add(session);
+            }
+            return sessionRepository.saveAll(sessions).size();
+        });
+    }
+}
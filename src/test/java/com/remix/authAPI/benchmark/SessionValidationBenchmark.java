@@ -0,0 +1,68 @@
+package com.remix.authAPI.benchmark;
+
+import com.remix.authAPI.entity.User;
+import com.remix.authAPI.repositories.UserRepository;
+import com.remix.authAPI.services.SessionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code SessionService.validateAndUpdateSession} sur PostgreSQL embarqué, avec et sans
+ * cache mémoire / écriture différée (chemin d'origine : SELECT + UPDATE à chaque appel).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+public class SessionValidationBenchmark {
+
+    private static final int SESSIONS = 1_000;
+
+    @Param({ "true", "false" })
+    public boolean inMemory;
+
+    private BenchmarkEnvironment environment;
+    private SessionService sessionService;
+    private String[] tokens;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup(Level.Trial)
+    public void start() {
+        environment = BenchmarkEnvironment.start(Map.of(
+            "app.session.cache.enabled", String.valueOf(inMemory),
+            "app.session.write-behind.enabled", String.valueOf(inMemory)
+        ));
+        sessionService = environment.bean(SessionService.class);
+        UserRepository userRepository = environment.bean(UserRepository.class);
+
+        tokens = new String[SESSIONS];
+        for (int i = 0; i < SESSIONS; i++) {
+            User user = new User();
+            user.setEmail("session-bench-" + i + "@example.com");
+            user.setPasswordHash("non-utilisé");
+            user.setIsEmailVerified(true);
+            tokens[i] = sessionService.createSession(userRepository.save(user).getId()).getToken();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        environment.close();
+    }
+
+    @Benchmark
+    public boolean validate(Cursor cursor) {
+        cursor.next = (cursor.next + 1) % SESSIONS;
+        return sessionService.validateAndUpdateSession(tokens[cursor.next]);
+    }
+}
@@ -0,0 +1,40 @@
+package com.remix.authAPI.benchmark;
+
+import com.remix.authAPI.services.TwoFactorCodeGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Génération d'un code 2FA : {@code SecureRandom} créé à chaque code (comportement d'origine)
+ * contre le générateur partagé.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class TwoFactorCodeBenchmark {
+
+    private static final int LENGTH = 6;
+
+    private final TwoFactorCodeGenerator generator = new TwoFactorCodeGenerator(LENGTH);
+
+    @Benchmark
+    public String newSecureRandomPerCode() {
+        SecureRandom random = new SecureRandom();
+        StringBuilder code = new StringBuilder();
+        for (int i = 0; i < LENGTH; i++) {
+            code.append(random.nextInt(10));
+        }
+        return code.toString();
+    }
+
+    @Benchmark
+    public String sharedGenerator() {
+        return generator.generate();
+    }
+}
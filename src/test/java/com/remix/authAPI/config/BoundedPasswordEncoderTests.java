@@ -0,0 +1,43 @@
+package com.remix.authAPI.config;
+
+import com.remix.authAPI.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTests {
+
+    @Test
+    void stuckHashFailsAfterTimeoutInsteadOfBlockingTheCaller() {
+        CountDownLatch never = new CountDownLatch(1);
+        PasswordEncoder stuck = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    never.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(stuck, 1, 1, 1, 100)) {
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> encoder.matches("secret", "hash"))
+                .isInstanceOf(ServiceOverloadedException.class);
+
+            assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(5_000);
+            assertThat(encoder.getTimedOutCount()).isEqualTo(1);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.remix.authAPI.controllers;
+
+import com.remix.authAPI.exception.AuthenticationFailedException;
+import com.remix.authAPI.services.EmailService;
+import com.remix.authAPI.services.SessionService;
+import com.remix.authAPI.services.UserService;
+import com.remix.authAPI.support.EmbeddedPostgresTests;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Limitation de débit derrière un reverse proxy : la requête passe par le vrai Tomcat (port aléatoire)
+ * pour que la valve RemoteIp remplace l'adresse du proxy (boucle locale, de confiance) par X-Forwarded-For.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "management.server.port=0",
+    "app.security.rate-limit.per-ip=2",
+    "app.security.rate-limit.per-email=1000"
+})
+class LoginControllerTests extends EmbeddedPostgresTests {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private EmailService emailService;
+
+    // Écarte le nettoyage planifié des sessions
+    @MockBean
+    private SessionService sessionService;
+
+    @BeforeEach
+    void setUp() {
+        when(userService.initiateLogin(any(), any())).thenThrow(new AuthenticationFailedException(AuthenticationFailedException.Reason.BAD_PASSWORD, "Identifiants invalides"));
+    }
+
+    @Test
+    void clientsBehindTheSameProxyAreLimitedSeparately() {
+        assertThat(initiateFrom("203.0.113.1")).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(initiateFrom("203.0.113.1")).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(initiateFrom("203.0.113.1")).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+
+        // Même proxy, autre client : sa propre limite
+        assertThat(initiateFrom("203.0.113.2")).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    private HttpStatus initiateFrom(String clientIp) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Forwarded-For", clientIp);
+        Map<String, String> body = Map.of("email", "client-" + clientIp + "@example.com", "password", "MotDePasse123!");
+        return HttpStatus.valueOf(restTemplate.postForEntity("/api/auth/login/initiate", new HttpEntity<>(body, headers), Map.class)
+            .getStatusCode().value());
+    }
+}
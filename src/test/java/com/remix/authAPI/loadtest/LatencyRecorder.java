@@ -0,0 +1,63 @@
+package com.remix.authAPI.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latences et erreurs par endpoint. Les durées sont toutes conservées puis triées
+ * en fin de campagne : percentiles exacts, sans histogramme approché.
+ */
+final class LatencyRecorder {
+
+    record Summary(String endpoint, int count, long errors, double p50Millis, double p95Millis,
+                   double p99Millis, double maxMillis) {}
+
+    private final Map<String, ConcurrentLinkedQueue<Long>> durations = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long durationNanos, boolean success) {
+        durations.computeIfAbsent(endpoint, key -> new ConcurrentLinkedQueue<>()).add(durationNanos);
+        LongAdder endpointErrors = errors.computeIfAbsent(endpoint, key -> new LongAdder());
+        if (!success) {
+            endpointErrors.increment();
+        }
+    }
+
+    List<Summary> summarize() {
+        List<Summary> summaries = new ArrayList<>();
+        for (Map.Entry<String, ConcurrentLinkedQueue<Long>> entry : new LinkedHashMap<>(durations).entrySet()) {
+            long[] sorted = entry.getValue().stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            summaries.add(new Summary(
+                entry.getKey(),
+                sorted.length,
+                errors.get(entry.getKey()).sum(),
+                percentile(sorted, 0.50),
+                percentile(sorted, 0.95),
+                percentile(sorted, 0.99),
+                sorted.length == 0 ? 0 : toMillis(sorted[sorted.length - 1])
+            ));
+        }
+        summaries.sort((a, b) -> a.endpoint().compareTo(b.endpoint()));
+        return summaries;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return toMillis(sorted[Math.max(0, index)]);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
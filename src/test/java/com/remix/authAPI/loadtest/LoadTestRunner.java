@@ -0,0 +1,159 @@
+package com.remix.authAPI.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.remix.authAPI.AuthApiApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test de charge de bout en bout : l'application complète (port aléatoire) sur un PostgreSQL
+ * embarqué, avec GreenMail comme serveur SMTP. Chaque utilisateur virtuel suit le parcours
+ * inscription → vérification de l'email → login/initiate → login/verify → sessions/validate.
+ *
+ * <p>Paramètres (propriétés système) : {@code loadtest.users}, {@code loadtest.ramp-seconds}
+ * (démarrages répartis linéairement), {@code loadtest.concurrency} (parcours simultanés),
+ * {@code loadtest.validations} (validations par session), {@code loadtest.report} (rapport JSON).
+ * Toute propriété {@code app.*} passée en {@code -D} s'applique à l'application.
+ */
+public final class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        int users = Integer.getInteger("loadtest.users", 200);
+        int rampSeconds = Integer.getInteger("loadtest.ramp-seconds", 10);
+        int concurrency = Integer.getInteger("loadtest.concurrency", 64);
+        int validations = Integer.getInteger("loadtest.validations", 20);
+        String reportPath = System.getProperty("loadtest.report", "target/loadtest-report.json");
+
+        GreenMail greenMail = new GreenMail(ServerSetupTest.SMTP.dynamicPort());
+        greenMail.start();
+        EmbeddedPostgres postgres = EmbeddedPostgres.start();
+        ConfigurableApplicationContext context = startApplication(postgres, greenMail, Map.of());
+
+        try {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            ObjectMapper objectMapper = new ObjectMapper();
+            LatencyRecorder recorder = new LatencyRecorder();
+            HttpClient httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+            UserJourney journey = new UserJourney(httpClient, objectMapper,
+                new MailCatcher(greenMail, Duration.ofSeconds(30)), recorder, baseUrl, validations);
+
+            AtomicInteger completed = new AtomicInteger();
+            AtomicInteger failed = new AtomicInteger();
+            Semaphore inFlight = new Semaphore(concurrency);
+            long rampNanos = TimeUnit.SECONDS.toNanos(rampSeconds);
+            long start = System.nanoTime();
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < users; i++) {
+                    long startAt = start + rampNanos * i / Math.max(1, users);
+                    String email = String.format("load-%07d@loadtest.local", i);
+                    executor.submit(() -> {
+                        TimeUnit.NANOSECONDS.sleep(Math.max(0, startAt - System.nanoTime()));
+                        inFlight.acquire();
+                        try {
+                            (journey.run(email) ? completed : failed).incrementAndGet();
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                        } finally {
+                            inFlight.release();
+                        }
+                        return null;
+                    });
+                }
+            }
+            double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+            List<LatencyRecorder.Summary> summaries = recorder.summarize();
+            print(summaries, users, completed.get(), failed.get(), elapsedSeconds);
+            writeReport(reportPath, summaries, users, rampSeconds, concurrency, validations,
+                completed.get(), failed.get(), elapsedSeconds);
+        } finally {
+            context.close();
+            postgres.close();
+            greenMail.stop();
+        }
+    }
+
+    /**
+     * Démarre l'application sur un port aléatoire ; {@code overrides} complète ou remplace la configuration de test.
+     */
+    static ConfigurableApplicationContext startApplication(EmbeddedPostgres postgres, GreenMail greenMail,
+                                                           Map<String, Object> overrides) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", "0");
+        properties.put("management.server.port", "0");
+        properties.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+        properties.put("spring.datasource.username", "postgres");
+        properties.put("spring.datasource.password", "postgres");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("logging.level.root", "WARN");
+        properties.put("spring.mail.host", "localhost");
+        properties.put("spring.mail.port", String.valueOf(greenMail.getSmtp().getPort()));
+        properties.put("spring.mail.username", "");
+        properties.put("spring.mail.password", "");
+        properties.put("spring.mail.properties.mail.smtp.auth", "false");
+        properties.put("spring.mail.properties.mail.smtp.starttls.enable", "false");
+        // Tous les utilisateurs virtuels partagent la même IP : la limite par IP fausserait la mesure
+        properties.put("app.security.rate-limit.enabled", "false");
+        properties.putAll(overrides);
+
+        // Passées comme arguments de ligne de commande : prioritaires sur application.properties
+        return new SpringApplicationBuilder(AuthApiApplication.class)
+            .run(properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new));
+    }
+
+    private static void print(List<LatencyRecorder.Summary> summaries, int users, int completed, int failed,
+                              double elapsedSeconds) {
+        System.out.printf("%nParcours : %d lancés, %d complets, %d en échec, %.1f s%n", users, completed, failed, elapsedSeconds);
+        System.out.printf("%-32s %8s %8s %9s %9s %9s %9s %9s%n",
+            "endpoint", "requêtes", "erreurs", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (LatencyRecorder.Summary summary : summaries) {
+            System.out.printf("%-32s %8d %8d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                summary.endpoint(), summary.count(), summary.errors(), summary.count() / elapsedSeconds,
+                summary.p50Millis(), summary.p95Millis(), summary.p99Millis(), summary.maxMillis());
+        }
+    }
+
+    private static void writeReport(String path, List<LatencyRecorder.Summary> summaries, int users, int rampSeconds,
+                                    int concurrency, int validations, int completed, int failed,
+                                    double elapsedSeconds) throws Exception {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("users", users);
+        report.put("rampSeconds", rampSeconds);
+        report.put("concurrency", concurrency);
+        report.put("validationsPerUser", validations);
+        report.put("completed", completed);
+        report.put("failed", failed);
+        report.put("elapsedSeconds", elapsedSeconds);
+        report.put("endpoints", summaries);
+
+        File file = new File(path);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+        System.out.println("Rapport : " + file.getAbsolutePath());
+    }
+}
@@ -0,0 +1,80 @@
+package com.remix.authAPI.loadtest;
+
+import com.icegreen.greenmail.store.FolderException;
+import com.icegreen.greenmail.store.StoredMessage;
+import com.icegreen.greenmail.user.GreenMailUser;
+import com.icegreen.greenmail.util.GreenMail;
+import jakarta.mail.BodyPart;
+import jakarta.mail.Multipart;
+import jakarta.mail.Part;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lecture des emails reçus par le serveur SMTP local : liens de vérification et codes 2FA.
+ * Seule la boîte du destinataire est lue (GreenMail range chaque message dans la boîte de
+ * son destinataire), et chaque message n'est analysé qu'une fois par attente : le coût
+ * ne croît pas avec le nombre d'utilisateurs virtuels.
+ */
+final class MailCatcher {
+
+    static final Pattern VERIFICATION_TOKEN = Pattern.compile("verify-email\\?token=([\\w-]+)");
+    static final Pattern TWO_FACTOR_CODE = Pattern.compile("class='code'>(\\d+)<");
+
+    private final GreenMail greenMail;
+    private final Duration timeout;
+
+    MailCatcher(GreenMail greenMail, Duration timeout) {
+        this.greenMail = greenMail;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Attend le {@code occurrence}-ième email (à partir de 1) reçu par {@code recipient}
+     * dont le corps contient {@code pattern}, et renvoie le premier groupe capturé.
+     */
+    String await(String recipient, Pattern pattern, int occurrence) throws Exception {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        int parsed = 0;
+        int seen = 0;
+        while (System.nanoTime() < deadline) {
+            List<StoredMessage> messages = inbox(recipient);
+            for (; parsed < messages.size(); parsed++) {
+                Matcher matcher = pattern.matcher(textOf(messages.get(parsed).getMimeMessage()));
+                if (matcher.find() && ++seen == occurrence) {
+                    return matcher.group(1);
+                }
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException("Aucun email reçu pour " + recipient + " après " + timeout);
+    }
+
+    // Boîte créée à la première livraison : vide tant qu'aucun email n'est arrivé
+    private List<StoredMessage> inbox(String recipient) throws FolderException {
+        GreenMailUser user = greenMail.getUserManager().getUserByEmail(recipient);
+        if (user == null) {
+            return List.of();
+        }
+        return greenMail.getManagers().getImapHostManager().getInbox(user).getMessages();
+    }
+
+    private static String textOf(Part part) throws Exception {
+        Object content = part.getContent();
+        if (content instanceof String text) {
+            return text;
+        }
+        if (content instanceof Multipart multipart) {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < multipart.getCount(); i++) {
+                BodyPart bodyPart = multipart.getBodyPart(i);
+                text.append(textOf(bodyPart));
+            }
+            return text.toString();
+        }
+        return "";
+    }
+}
@@ -0,0 +1,268 @@
+package com.remix.authAPI.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.remix.authAPI.entity.User;
+import com.remix.authAPI.repositories.UserRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connexions simultanées selon le modèle de threads du serveur. Pour chaque palier de
+ * {@code loadtest.levels}, autant de {@code POST /api/auth/login/initiate} sont lâchés au même
+ * instant ; on relève réussites, erreurs, latences, pic de threads plateforme et empreinte mémoire.
+ * Le palier retenu ({@code maxConcurrentLogins}) est le plus haut sans erreur dont le p99 respecte
+ * {@code loadtest.slo-ms}.
+ *
+ * <p>Un mode par JVM, pour des mesures mémoire indépendantes :
+ * {@code -Dspring.threads.virtual.enabled=true|false}. BCrypt est ramené au coût 4 et sa file
+ * élargie : la comparaison porte sur l'attente bloquante (JDBC, pool de connexions), pas sur le CPU.
+ *
+ * <p>Le client HTTP tourne dans un processus à part ({@link Client}, piloté par stdin/stdout) :
+ * threads, tas et RSS relevés ici sont ceux du serveur seul, sans les requêtes en vol du client.
+ */
+public final class ThreadModeBenchmark {
+
+    private static final String PASSWORD = "MotDePasse123!";
+
+    // Mesures côté client, transmises sur une ligne de stdout
+    record ClientResult(int succeeded, double seconds, double p50Millis, double p99Millis, double maxMillis) {}
+
+    record Level(int concurrency, int succeeded, int failed, double seconds, double p50Millis, double p99Millis,
+                 double maxMillis, int peakThreads, long heapUsedBytes, long nonHeapCommittedBytes, long rssBytes) {}
+
+    public static void main(String[] args) throws Exception {
+        boolean virtual = Boolean.getBoolean("spring.threads.virtual.enabled");
+        int[] levels = Arrays.stream(System.getProperty("loadtest.levels", "50,100,200,400,800,1600").split(","))
+            .map(String::trim)
+            .mapToInt(Integer::parseInt)
+            .toArray();
+        long sloMillis = Long.getLong("loadtest.slo-ms", 1000);
+        String reportPath = System.getProperty("loadtest.report",
+            "target/threadmode-" + (virtual ? "virtual" : "platform") + ".json");
+
+        GreenMail greenMail = new GreenMail(ServerSetupTest.SMTP.dynamicPort());
+        greenMail.start();
+        EmbeddedPostgres postgres = EmbeddedPostgres.start();
+        ConfigurableApplicationContext context = LoadTestRunner.startApplication(postgres, greenMail, Map.of(
+            "spring.threads.virtual.enabled", String.valueOf(virtual),
+            "app.security.hashing.strength", "4",
+            "app.security.hashing.queue-capacity", "100000"
+        ));
+
+        Process client = null;
+        try {
+            int maxLevel = Arrays.stream(levels).max().orElse(0);
+            seedUsers(context, maxLevel);
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            client = new ProcessBuilder(
+                ProcessHandle.current().info().command().orElse("java"),
+                "-cp", System.getProperty("java.class.path"),
+                Client.class.getName(), baseUrl)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+            BufferedWriter commands = client.outputWriter(StandardCharsets.UTF_8);
+            BufferedReader replies = client.inputReader(StandardCharsets.UTF_8);
+
+            // Palier de chauffe : JIT, pool de connexions, premières classes chargées
+            runLevel(commands, replies, Math.min(20, maxLevel));
+
+            List<Level> results = new ArrayList<>();
+            int maxConcurrentLogins = 0;
+            for (int concurrency : levels) {
+                Level level = runLevel(commands, replies, concurrency);
+                results.add(level);
+                System.out.printf("%s %5d : %5d ok, %5d erreurs, p50 %8.1f ms, p99 %8.1f ms, %4d threads, RSS %6.1f Mo%n",
+                    virtual ? "virtual " : "platform", concurrency, level.succeeded(), level.failed(),
+                    level.p50Millis(), level.p99Millis(), level.peakThreads(), level.rssBytes() / 1048576.0);
+                if (level.failed() == 0 && level.p99Millis() <= sloMillis) {
+                    maxConcurrentLogins = concurrency;
+                }
+            }
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("threads", virtual ? "virtual" : "platform");
+            report.put("sloMillis", sloMillis);
+            report.put("maxConcurrentLogins", maxConcurrentLogins);
+            report.put("levels", results);
+            File file = new File(reportPath);
+            if (file.getParentFile() != null) {
+                file.getParentFile().mkdirs();
+            }
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+            System.out.println("Connexions simultanées tenues : " + maxConcurrentLogins + " ; rapport : " + file.getAbsolutePath());
+        } finally {
+            if (client != null) {
+                client.destroy();
+            }
+            context.close();
+            postgres.close();
+            greenMail.stop();
+        }
+    }
+
+    private static void seedUsers(ConfigurableApplicationContext context, int count) {
+        // Un seul hachage partagé : l'amorçage ne doit pas dominer la durée du banc
+        String hash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setEmail(email(i));
+            user.setPasswordHash(hash);
+            user.setIsEmailVerified(true);
+            users.add(user);
+        }
+        context.getBean(UserRepository.class).saveAll(users);
+    }
+
+    private static Level runLevel(BufferedWriter commands, BufferedReader replies, int concurrency) throws IOException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        threads.resetPeakThreadCount();
+
+        commands.write(concurrency + "\n");
+        commands.flush();
+        String reply = replies.readLine();
+        if (reply == null) {
+            throw new IOException("Le processus client s'est arrêté");
+        }
+        ClientResult result = new ObjectMapper().readValue(reply, ClientResult.class);
+
+        return new Level(
+            concurrency,
+            result.succeeded(),
+            concurrency - result.succeeded(),
+            result.seconds(),
+            result.p50Millis(),
+            result.p99Millis(),
+            result.maxMillis(),
+            threads.getPeakThreadCount(),
+            memory.getHeapMemoryUsage().getUsed(),
+            memory.getNonHeapMemoryUsage().getCommitted(),
+            residentSetBytes()
+        );
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    /**
+     * Mémoire résidente du processus (Linux) : inclut les piles des threads plateforme,
+     * absentes des compteurs du tas. -1 ailleurs.
+     */
+    private static long residentSetBytes() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D+", "")) * 1024;
+                }
+            }
+        } catch (Exception e) {
+            // pas de procfs
+        }
+        return -1;
+    }
+
+    private static String email(int index) {
+        return String.format("threads-%06d@loadtest.local", index);
+    }
+
+    /**
+     * Processus client : lit un palier par ligne sur stdin, lâche autant de connexions simultanées
+     * et répond par une ligne JSON ({@link ClientResult}) sur stdout.
+     */
+    public static final class Client {
+
+        public static void main(String[] args) throws Exception {
+            String baseUrl = args[0];
+            HttpClient httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+            ObjectMapper objectMapper = new ObjectMapper();
+
+            BufferedReader commands = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = commands.readLine()) != null) {
+                ClientResult result = runLevel(httpClient, baseUrl, Integer.parseInt(line.trim()));
+                System.out.println(objectMapper.writeValueAsString(result));
+                System.out.flush();
+            }
+        }
+
+        private static ClientResult runLevel(HttpClient httpClient, String baseUrl, int concurrency) throws Exception {
+            long[] durations = new long[concurrency];
+            AtomicInteger succeeded = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            long begin;
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < concurrency; i++) {
+                    int index = i;
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login/initiate"))
+                        .timeout(Duration.ofSeconds(30))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"email\":\"" + email(index) + "\",\"password\":\"" + PASSWORD + "\"}"))
+                        .build();
+                    executor.submit(() -> {
+                        start.await();
+                        long requestStart = System.nanoTime();
+                        try {
+                            if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                                succeeded.incrementAndGet();
+                            }
+                        } finally {
+                            durations[index] = System.nanoTime() - requestStart;
+                        }
+                        return null;
+                    });
+                }
+                begin = System.nanoTime();
+                start.countDown();
+            }
+            double seconds = (System.nanoTime() - begin) / 1e9;
+
+            Arrays.sort(durations);
+            return new ClientResult(
+                succeeded.get(),
+                seconds,
+                percentile(durations, 0.50),
+                percentile(durations, 0.99),
+                durations[durations.length - 1] / 1e6
+            );
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.remix.authAPI.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Parcours complet d'un utilisateur : inscription, vérification de l'email, connexion
+ * en deux étapes, puis validations répétées de la session. S'arrête à la première erreur.
+ */
+final class UserJourney {
+
+    private static final String PASSWORD = "MotDePasse123!";
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final MailCatcher mailCatcher;
+    private final LatencyRecorder recorder;
+    private final String baseUrl;
+    private final int validations;
+
+    UserJourney(HttpClient httpClient, ObjectMapper objectMapper, MailCatcher mailCatcher,
+                LatencyRecorder recorder, String baseUrl, int validations) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.mailCatcher = mailCatcher;
+        this.recorder = recorder;
+        this.baseUrl = baseUrl;
+        this.validations = validations;
+    }
+
+    /**
+     * @return {@code true} si le parcours est allé jusqu'au bout
+     */
+    boolean run(String email) throws Exception {
+        if (post("POST /api/auth/register", "/api/auth/register",
+                Map.of("email", email, "passwordHash", PASSWORD), null) == null) {
+            return false;
+        }
+
+        String verificationToken = timedMail("mail verification", email, MailCatcher.VERIFICATION_TOKEN);
+        if (get("GET /api/auth/verify-email", "/api/auth/verify-email?token=" + verificationToken) == null) {
+            return false;
+        }
+
+        if (post("POST /api/auth/login/initiate", "/api/auth/login/initiate",
+                Map.of("email", email, "password", PASSWORD), null) == null) {
+            return false;
+        }
+
+        String code = timedMail("mail 2fa", email, MailCatcher.TWO_FACTOR_CODE);
+        JsonNode session = post("POST /api/auth/login/verify", "/api/auth/login/verify",
+            Map.of("email", email, "pin", code), null);
+        if (session == null) {
+            return false;
+        }
+
+        String token = session.path("data").path("token").asText();
+        for (int i = 0; i < validations; i++) {
+            JsonNode validation = post("POST /api/sessions/validate", "/api/sessions/validate", Map.of(), token);
+            if (validation == null || !validation.path("data").asBoolean()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String timedMail(String name, String email, Pattern pattern) throws Exception {
+        long start = System.nanoTime();
+        try {
+            String value = mailCatcher.await(email, pattern, 1);
+            recorder.record(name, System.nanoTime() - start, true);
+            return value;
+        } catch (IllegalStateException e) {
+            recorder.record(name, System.nanoTime() - start, false);
+            throw e;
+        }
+    }
+
+    private JsonNode post(String name, String path, Map<String, String> body, String sessionToken) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        if (sessionToken != null) {
+            request.header("Session-Token", sessionToken);
+        }
+        return send(name, request.build());
+    }
+
+    private JsonNode get(String name, String path) throws Exception {
+        return send(name, HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30)).GET().build());
+    }
+
+    // null en cas d'erreur (statut hors 2xx ou exception), déjà comptée par le recorder
+    private JsonNode send(String name, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            boolean success = response.statusCode() / 100 == 2;
+            recorder.record(name, System.nanoTime() - start, success);
+            return success ? objectMapper.readTree(response.body()) : null;
+        } catch (Exception e) {
+            recorder.record(name, System.nanoTime() - start, false);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.remix.authAPI.repositories;
+
+import com.remix.authAPI.services.TokenDigest;
+import com.remix.authAPI.support.EmbeddedPostgresTests;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mise à niveau par Flyway d'une base créée avec l'ancien database/script.sql :
+ * les migrations doivent aboutir et produire le même schéma qu'une installation neuve.
+ * Chaque base est créée à part dans le PostgreSQL embarqué, avec les réglages
+ * de baseline de application.properties.
+ */
+class LegacySchemaMigrationTests extends EmbeddedPostgresTests {
+
+    private static final String TABLES = "'users', 'sessions', 'two_factor_challenges', 'email_outbox'";
+
+    @Test
+    void legacyDatabaseUpgradesToTheFreshSchema() throws IOException {
+        JdbcTemplate legacy = createDatabase("legacy_upgrade");
+        legacy.execute(new ClassPathResource("db/legacy-script.sql").getContentAsString(StandardCharsets.UTF_8));
+        legacy.update("INSERT INTO users (email, password_hash, email_verification_token) "
+            + "VALUES ('legacy@example.com', 'hash', 'verify-legacy')");
+        legacy.update("INSERT INTO sessions (user_id, token, expires_at) "
+            + "SELECT id, 'session-legacy', CURRENT_TIMESTAMP + INTERVAL '1 hour' FROM users");
+        migrate(legacy);
+
+        JdbcTemplate fresh = createDatabase("fresh_install");
+        migrate(fresh);
+
+        assertThat(columns(legacy)).isEqualTo(columns(fresh));
+        assertThat(indexes(legacy)).isEqualTo(indexes(fresh));
+        assertThat(sequences(legacy)).isEqualTo(sequences(fresh));
+
+        // Les tokens en clair existants sont remplacés par leur empreinte
+        assertThat(legacy.queryForObject("SELECT token_hash FROM sessions", byte[].class))
+            .isEqualTo(TokenDigest.sha256("session-legacy"));
+        assertThat(legacy.queryForObject("SELECT email_verification_token_hash FROM users", byte[].class))
+            .isEqualTo(TokenDigest.sha256("verify-legacy"));
+    }
+
+    private JdbcTemplate createDatabase(String name) {
+        new JdbcTemplate(POSTGRES.getPostgresDatabase()).execute("CREATE DATABASE " + name);
+        return new JdbcTemplate(POSTGRES.getDatabase("postgres", name));
+    }
+
+    private void migrate(JdbcTemplate jdbcTemplate) {
+        Flyway.configure()
+            .dataSource(jdbcTemplate.getDataSource())
+            .baselineOnMigrate(true)
+            .baselineVersion("1")
+            .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+            .load()
+            .migrate();
+    }
+
+    private List<Map<String, Object>> columns(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForList("SELECT table_name, column_name, data_type, character_maximum_length, is_nullable "
+            + "FROM information_schema.columns WHERE table_schema = 'public' AND table_name IN (" + TABLES + ") "
+            + "ORDER BY table_name, column_name");
+    }
+
+    private List<Map<String, Object>> indexes(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForList("SELECT tablename, indexname, indexdef FROM pg_indexes "
+            + "WHERE schemaname = 'public' AND tablename IN (" + TABLES + ") ORDER BY tablename, indexname");
+    }
+
+    private List<Map<String, Object>> sequences(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForList("SELECT sequencename, increment_by FROM pg_sequences "
+            + "WHERE schemaname = 'public' ORDER BY sequencename");
+    }
+}
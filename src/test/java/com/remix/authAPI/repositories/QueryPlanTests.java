@@ -0,0 +1,211 @@
+package com.remix.authAPI.repositories;
+
+import com.remix.authAPI.services.SessionService;
+import com.remix.authAPI.services.TokenDigest;
+import com.remix.authAPI.support.EmbeddedPostgresTests;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plans d'exécution (EXPLAIN) des requêtes des repositories sur le schéma créé par Flyway,
+ * avec assez de lignes pour que le planificateur préfère un index quand il en existe un.
+ * Les requêtes natives sont lues dans leur annotation {@code @Query} ; pour les requêtes JPQL
+ * et dérivées, le SQL équivalent est écrit ici. Le démarrage du contexte vérifie aussi
+ * l'absence d'écart entre entités et schéma ({@code ddl-auto=validate}).
+ * Les données sont annulées avec la transaction de chaque test.
+ */
+@SpringBootTest
+@Transactional
+class QueryPlanTests extends EmbeddedPostgresTests {
+
+    private static final int ROWS = 20_000;
+    // Hors des identifiants alloués par les autres tests qui partagent la base
+    private static final long ID_OFFSET = 10_000_000L;
+    private static final String NOW = "TIMESTAMP '2026-01-01 12:00:00'";
+    private static final String LATER = "TIMESTAMP '2026-01-01 12:10:00'";
+    private static final Pattern PARAMETER = Pattern.compile("\\?(\\d+)|:(\\w+)");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Écarte le nettoyage planifié des sessions
+    @MockBean
+    private SessionService sessionService;
+
+    @BeforeEach
+    void setUp() {
+        // 1 % de tokens en attente, de sessions et défis expirés, d'emails à envoyer
+        jdbcTemplate.update("INSERT INTO users (id, email, password_hash, is_email_verified, "
+            + "email_verification_token_hash, unlock_token_hash) "
+            + "SELECT ? + g, 'plan-' || g || '@example.com', 'hash', TRUE, "
+            + "CASE WHEN g % 100 = 0 THEN sha256(convert_to('verify-' || g, 'UTF8')) END, "
+            + "CASE WHEN g % 100 = 0 THEN sha256(convert_to('unlock-' || g, 'UTF8')) END "
+            + "FROM generate_series(1, ?) g", ID_OFFSET, ROWS);
+        jdbcTemplate.update("INSERT INTO sessions (id, user_id, token_hash, expires_at, last_activity) "
+            + "SELECT ? + g, ? + g, sha256(convert_to('plan-token-' || g, 'UTF8')), "
+            + NOW + " + CASE WHEN g % 100 = 0 THEN INTERVAL '-1 hour' ELSE INTERVAL '10 minutes' END, " + NOW + " "
+            + "FROM generate_series(1, ?) g", ID_OFFSET, ID_OFFSET, ROWS);
+        jdbcTemplate.update("INSERT INTO two_factor_challenges (email, code, expires_at) "
+            + "SELECT 'plan-' || g || '@example.com', '123456', "
+            + NOW + " + CASE WHEN g % 100 = 0 THEN INTERVAL '-1 hour' ELSE INTERVAL '5 minutes' END "
+            + "FROM generate_series(1, ?) g", ROWS);
+        jdbcTemplate.update("INSERT INTO email_outbox (recipient, subject, body, status, next_attempt_at) "
+            + "SELECT 'plan-' || g || '@example.com', 'Sujet', 'Corps', "
+            + "CASE WHEN g % 100 = 0 THEN 'PENDING' ELSE 'SENT' END, " + NOW + " "
+            + "FROM generate_series(1, ?) g", ROWS);
+        jdbcTemplate.execute("ANALYZE users, sessions, two_factor_challenges, email_outbox");
+    }
+
+    @Test
+    void sessionLookupsByTokenUseUniqueIndex() {
+        String tokenHash = digest("plan-token-42");
+        Map<String, String> values = Map.of("1", tokenHash, "2", NOW, "3", LATER);
+
+        // findByTokenHash, findViewByTokenHash
+        assertUsesIndex("SELECT s.id, s.user_id, s.expires_at FROM sessions s WHERE s.token_hash = " + tokenHash,
+            "sessions_token_hash_key", "sessions");
+        assertUsesIndex(bind(nativeQuery(SessionRepository.class, "touchSessionByTokenHash"), values),
+            "sessions_token_hash_key", "sessions");
+        assertUsesIndex(bind(nativeQuery(SessionRepository.class, "deleteByTokenHashReturningId"), values),
+            "sessions_token_hash_key", "sessions");
+    }
+
+    @Test
+    void sessionWritesByIdUsePrimaryKey() {
+        long id = ID_OFFSET + 42;
+
+        // touchSession et écriture différée de SessionActivityBuffer, deleteSession, deleteExpiredByIds
+        assertUsesIndex("UPDATE sessions SET last_activity = " + NOW + ", expires_at = " + LATER + " WHERE id = " + id,
+            "sessions_pkey", "sessions");
+        assertUsesIndex("DELETE FROM sessions WHERE id = " + id, "sessions_pkey", "sessions");
+        assertUsesIndex("DELETE FROM sessions WHERE id IN (" + id + ", " + (id + 1) + ", " + (id + 2) + ") "
+            + "AND expires_at < " + NOW, "sessions_pkey", "sessions");
+    }
+
+    @Test
+    void expiredSessionSweepUsesExpiryIndex() {
+        String sql = bind(nativeQuery(SessionRepository.class, "findExpiredSessionIds"),
+            Map.of("1", "0", "2", NOW, "3", "1000"));
+
+        assertUsesIndex(sql, "idx_sessions_expires_at", "sessions");
+    }
+
+    @Test
+    void sessionRevocationByUserUsesUserIndex() {
+        // deleteCreatedBeforeReturningIds parcourt la table : révocation exceptionnelle, un index
+        // sur created_at coûterait une écriture de plus à chaque connexion
+        assertUsesIndex(bind(nativeQuery(SessionRepository.class, "deleteByUserIdReturningIds"),
+            Map.of("1", String.valueOf(ID_OFFSET + 42))), "idx_sessions_user_id", "sessions");
+        assertUsesIndex(bind(nativeQuery(SessionRepository.class, "deleteByUserIdsReturningIds"),
+            Map.of("1", (ID_OFFSET + 1) + ", " + (ID_OFFSET + 2) + ", " + (ID_OFFSET + 3))),
+            "idx_sessions_user_id", "sessions");
+    }
+
+    @Test
+    void userLookupsByEmailUseUniqueIndex() {
+        Map<String, String> values = Map.of("email", "'plan-42@example.com'", "max", "3",
+            "now", NOW, "lockedUntil", LATER, "unlockTokenHash", digest("unlock"));
+
+        // findByEmail, existsByEmail, findCredentialsByEmail, findFailedLoginAttemptsByEmail
+        assertUsesIndex("SELECT u.id, u.password_hash, u.failed_login_attempts FROM users u "
+            + "WHERE u.email = 'plan-42@example.com'", "users_email_key", "users");
+        // findExistingEmails
+        assertUsesIndex("SELECT u.email FROM users u WHERE u.email IN "
+            + "('plan-1@example.com', 'plan-2@example.com', 'absent@example.com')", "users_email_key", "users");
+        assertUsesIndex(bind(nativeQuery(UserRepository.class, "incrementFailedLoginAttempts"), values),
+            "users_email_key", "users");
+        assertUsesIndex(bind(nativeQuery(UserRepository.class, "increment2FAAttempts"), values),
+            "users_email_key", "users");
+    }
+
+    @Test
+    void userTokenLookupsUsePartialIndexes() {
+        // findByEmailVerificationTokenHash, findByUnlockTokenHash
+        assertUsesIndex("SELECT u.id FROM users u WHERE u.email_verification_token_hash = " + digest("verify-4200"),
+            "idx_users_email_verification_token_hash", "users");
+        assertUsesIndex("SELECT u.id FROM users u WHERE u.unlock_token_hash = " + digest("unlock-4200"),
+            "idx_users_unlock_token_hash", "users");
+    }
+
+    @Test
+    void userReadsAndWritesByIdUsePrimaryKey() {
+        long id = ID_OFFSET + 42;
+
+        // findSummaryById, findSummariesAfter, resetLoginFailures / resetAllFailures
+        assertUsesIndex("SELECT u.id, u.email FROM users u WHERE u.id = " + id, "users_pkey", "users");
+        assertUsesIndex("SELECT u.id, u.email FROM users u WHERE u.id > " + id + " ORDER BY u.id LIMIT 50",
+            "users_pkey", "users");
+        assertUsesIndex("UPDATE users SET failed_login_attempts = 0, account_locked = FALSE, updated_at = " + NOW
+            + " WHERE id = " + id, "users_pkey", "users");
+    }
+
+    @Test
+    void twoFactorChallengeQueriesUseIndexes() {
+        String email = "'plan-42@example.com'";
+
+        assertUsesIndex(bind(nativeQuery(TwoFactorChallengeRepository.class, "upsert"),
+            Map.of("1", email, "2", "'654321'", "3", LATER, "4", NOW)),
+            "two_factor_challenges_pkey", "two_factor_challenges");
+        // deleteByEmail, deleteExpired
+        assertUsesIndex("DELETE FROM two_factor_challenges WHERE email = " + email,
+            "two_factor_challenges_pkey", "two_factor_challenges");
+        assertUsesIndex("DELETE FROM two_factor_challenges WHERE expires_at < " + NOW,
+            "idx_two_factor_challenges_expires_at", "two_factor_challenges");
+    }
+
+    @Test
+    void outboxRelayQueriesUseIndexes() {
+        assertUsesIndex(bind(nativeQuery(EmailOutboxRepository.class, "claimBatch"), Map.of("1", LATER, "2", LATER, "3", "100")),
+            "idx_email_outbox_due", "email_outbox");
+        // markSent
+        assertUsesIndex("UPDATE email_outbox SET status = 'SENT', sent_at = " + NOW + ", body = NULL WHERE id IN (1, 2, 3)",
+            "email_outbox_pkey", "email_outbox");
+        assertUsesIndex(bind(nativeQuery(EmailOutboxRepository.class, "recordFailure"),
+            Map.of("1", "1", "2", "'FAILED'", "3", "3", "4", "'Erreur'", "5", NOW)), "email_outbox_pkey", "email_outbox");
+        // Lignes insérées à l'horloge courante : aucune n'est antérieure à la rétention
+        assertUsesIndex(bind(nativeQuery(EmailOutboxRepository.class, "deleteDoneBefore"),
+            Map.of("1", "CURRENT_TIMESTAMP - INTERVAL '7 days'", "2", "100")), "idx_email_outbox_done", "email_outbox");
+    }
+
+    private void assertUsesIndex(String sql, String index, String table) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+        assertThat(plan).as(sql).contains(index).doesNotContain("Seq Scan on " + table);
+    }
+
+    // Littéral bytea de l'empreinte calculée par l'application
+    private static String digest(String token) {
+        return "'\\x" + HexFormat.of().formatHex(TokenDigest.sha256(token)) + "'::bytea";
+    }
+
+    private static String nativeQuery(Class<?> repository, String method) {
+        return Arrays.stream(repository.getMethods())
+            .filter(candidate -> candidate.getName().equals(method))
+            .findFirst()
+            .orElseThrow()
+            .getAnnotation(Query.class)
+            .value();
+    }
+
+    // Paramètres ?1 / :nom remplacés par des littéraux : EXPLAIN sans exécution
+    private static String bind(String sql, Map<String, String> values) {
+        return PARAMETER.matcher(sql).replaceAll(match -> {
+            String name = match.group(1) != null ? match.group(1) : match.group(2);
+            return Matcher.quoteReplacement(Objects.requireNonNull(values.get(name), "Paramètre non lié : " + name));
+        });
+    }
+}
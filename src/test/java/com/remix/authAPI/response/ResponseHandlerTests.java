@@ -0,0 +1,53 @@
+package com.remix.authAPI.response;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseHandlerTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void envelopeKeepsFieldOrderAndOmitsNulls() throws Exception {
+        ResponseEntity<Object> response = ResponseHandler.generateSuccessResponse(Map.of("id", 1), Map.of("hasMore", false));
+
+        assertThat(objectMapper.writeValueAsString(response.getBody()))
+            .isEqualTo("{\"data\":{\"id\":1},\"code\":200,\"status\":\"OK\",\"meta\":{\"hasMore\":false}}");
+    }
+
+    @Test
+    void errorEnvelopeHasNoData() throws Exception {
+        ResponseEntity<Object> response = ResponseHandler.generateErrorResponse("Introuvable", HttpStatus.NOT_FOUND);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(objectMapper.writeValueAsString(response.getBody()))
+            .isEqualTo("{\"error\":\"Introuvable\",\"code\":404,\"status\":\"Not Found\"}");
+    }
+
+    @Test
+    void retryLaterResponseCarriesRetryAfter() {
+        ResponseEntity<Object> response = ResponseHandler.generateRetryLaterResponse("Trop de requêtes", HttpStatus.TOO_MANY_REQUESTS, 7);
+
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("7");
+        assertThat(response.getBody()).isInstanceOf(ResponseEnvelope.class);
+    }
+
+    @Test
+    void preSerializedResponseMatchesRegularEnvelope() throws Exception {
+        ResponseEntity<Object> constant = ResponseHandler.preSerializedSuccessResponse(true);
+
+        assertThat(constant.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(new String((byte[]) constant.getBody(), StandardCharsets.UTF_8))
+            .isEqualTo(objectMapper.writeValueAsString(ResponseHandler.generateSuccessResponse(true).getBody()))
+            .isEqualTo("{\"data\":true,\"code\":200,\"status\":\"OK\"}");
+    }
+}
@@ -0,0 +1,52 @@
+package com.remix.authAPI.services;
+
+import com.remix.authAPI.exception.AuthenticationFailedException;
+import com.remix.authAPI.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthMetricsTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AuthMetrics metrics = new AuthMetrics(registry);
+
+    @Test
+    void allTagCombinationsAreRegisteredUpFront() {
+        int operations = AuthMetrics.Operation.values().length;
+        int outcomes = AuthenticationFailedException.Reason.values().length + 2;
+
+        assertThat(registry.find("auth.login").timers()).hasSize(operations * outcomes);
+        assertThat(registry.find("auth.login.phase").timers())
+            .hasSize(operations * AuthMetrics.Phase.values().length);
+        assertThat(registry.find("auth.session.validate").timers())
+            .hasSize(AuthMetrics.SessionPath.values().length * 2);
+    }
+
+    @Test
+    void failureIsTaggedWithItsReasonAndUnexpectedErrorsAreGrouped() {
+        long start = System.nanoTime();
+        metrics.failure(AuthMetrics.Operation.INITIATE, new AuthenticationFailedException(
+            AuthenticationFailedException.Reason.BAD_PASSWORD, "Email ou mot de passe incorrect"), start);
+        metrics.failure(AuthMetrics.Operation.INITIATE, new ServiceOverloadedException("Surcharge", 1), start);
+        metrics.success(AuthMetrics.Operation.INITIATE, start);
+
+        assertThat(count("initiate", "bad_password")).isEqualTo(1);
+        assertThat(count("initiate", "error")).isEqualTo(1);
+        assertThat(count("initiate", "success")).isEqualTo(1);
+        assertThat(count("verify", "success")).isZero();
+    }
+
+    @Test
+    void lockoutsAreCountedPerCause() {
+        metrics.lockout(AuthMetrics.LockoutCause.TWO_FACTOR);
+
+        assertThat(registry.get("auth.account.lockouts").tag("cause", "two_factor").counter().count()).isEqualTo(1);
+        assertThat(registry.get("auth.account.lockouts").tag("cause", "password").counter().count()).isZero();
+    }
+
+    private long count(String operation, String outcome) {
+        return registry.get("auth.login").tag("operation", operation).tag("outcome", outcome).timer().count();
+    }
+}
@@ -0,0 +1,128 @@
+package com.remix.authAPI.services;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.remix.authAPI.dto.OutgoingEmail;
+import com.remix.authAPI.entity.EmailOutbox;
+import com.remix.authAPI.repositories.EmailOutboxRepository;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailOutboxRelayTests {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private EmailOutboxRepository outboxRepository;
+    private EmailOutboxRelay relay;
+    private EmailOutboxRelay failingRelay;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+        outboxRepository = mock(EmailOutboxRepository.class);
+        relay = new EmailOutboxRelay(outboxRepository, new EmailDispatcher(mailSender, new SmtpTransportPool(mailSender, true, 1, 30), 10), 100, 3, 500, 60, 7);
+
+        EmailDispatcher failingDispatcher = mock(EmailDispatcher.class);
+        doThrow(new MailSendException("Serveur SMTP indisponible")).when(failingDispatcher).send(any());
+        failingRelay = new EmailOutboxRelay(outboxRepository, failingDispatcher, 100, 3, 500, 60, 7);
+    }
+
+    @Test
+    void relaySendsClaimedBatchAndMarksItSent() throws Exception {
+        EmailOutbox first = pending(1L, "alice@example.com", "123456");
+        EmailOutbox second = pending(2L, "bob@example.com", "654321");
+        when(outboxRepository.claimBatch(any(), any(), anyInt())).thenReturn(List.of(first, second));
+
+        assertThat(relay.relay()).isEqualTo(2);
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(2);
+        assertThat(received[0].getAllRecipients()[0].toString()).isEqualTo("alice@example.com");
+        assertThat(GreenMailUtil.getBody(received[0])).contains("123456");
+        verify(outboxRepository).markSent(eq(List.of(1L, 2L)), any());
+    }
+
+    @Test
+    void relayDoesNothingWhenOutboxIsEmpty() {
+        when(outboxRepository.claimBatch(any(), any(), anyInt())).thenReturn(List.of());
+
+        assertThat(relay.relay()).isZero();
+
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+        verify(outboxRepository, never()).markSent(any(), any());
+    }
+
+    @Test
+    void failedSendIsRescheduledWithExponentialBackoff() {
+        EmailOutbox message = pending(1L, "alice@example.com", "123456");
+        message.setAttempts(1);
+        when(outboxRepository.claimBatch(any(), any(), anyInt())).thenReturn(List.of(message));
+
+        LocalDateTime before = LocalDateTime.now();
+        assertThat(failingRelay.relay()).isZero();
+        LocalDateTime after = LocalDateTime.now();
+
+        // Deuxième échec : 500 ms << 1
+        ArgumentCaptor<LocalDateTime> nextAttemptAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepository).recordFailure(eq(1L), eq(EmailOutbox.STATUS_PENDING), eq(2),
+            eq("Serveur SMTP indisponible"), nextAttemptAt.capture());
+        assertThat(nextAttemptAt.getValue()).isBetween(before.plusNanos(1_000_000_000), after.plusNanos(1_000_000_000));
+        verify(outboxRepository, never()).markSent(any(), any());
+    }
+
+    @Test
+    void lastFailedAttemptMarksMessageFailed() {
+        EmailOutbox message = pending(1L, "alice@example.com", "123456");
+        message.setAttempts(2);
+        when(outboxRepository.claimBatch(any(), any(), anyInt())).thenReturn(List.of(message));
+
+        assertThat(failingRelay.relay()).isZero();
+
+        verify(outboxRepository).recordFailure(eq(1L), eq(EmailOutbox.STATUS_FAILED), eq(3),
+            eq("Serveur SMTP indisponible"), any());
+        verify(outboxRepository, never()).markSent(any(), any());
+    }
+
+    @Test
+    void purgeDeletesDoneMessagesOlderThanRetentionInBatches() {
+        when(outboxRepository.deleteDoneBefore(any(), eq(100))).thenReturn(100, 100, 42);
+
+        LocalDateTime before = LocalDateTime.now();
+        assertThat(relay.purge()).isEqualTo(242);
+        LocalDateTime after = LocalDateTime.now();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepository, times(3)).deleteDoneBefore(cutoff.capture(), eq(100));
+        assertThat(cutoff.getValue()).isBetween(before.minusDays(7), after.minusDays(7));
+    }
+
+    private static EmailOutbox pending(Long id, String to, String code) {
+        EmailOutbox outbox = EmailOutbox.of(new OutgoingEmail(to, "Code", "<p>" + code + "</p>"));
+        outbox.setId(id);
+        return outbox;
+    }
+}
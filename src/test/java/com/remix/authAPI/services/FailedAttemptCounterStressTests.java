@@ -0,0 +1,98 @@
+package com.remix.authAPI.services;
+
+import com.remix.authAPI.entity.User;
+import com.remix.authAPI.repositories.UserRepository;
+import com.remix.authAPI.support.EmbeddedPostgresTests;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Les compteurs d'échec doivent rester exacts quand de nombreux threads
+ * échouent en même temps sur le même compte.
+ */
+@SpringBootTest
+class FailedAttemptCounterStressTests extends EmbeddedPostgresTests {
+
+    private static final String EMAIL = "stress@example.com";
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_THREAD = 50;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private EmailService emailService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        User user = new User();
+        user.setEmail(EMAIL);
+        user.setPasswordHash("hash");
+        user.setIsEmailVerified(true);
+        userRepository.save(user);
+    }
+
+    @Test
+    void concurrentFailedLoginsAreCountedExactly() throws Exception {
+        runConcurrently(() -> userService.incrementFailedLoginAttempts(EMAIL));
+
+        User user = userRepository.findByEmail(EMAIL).orElseThrow();
+        assertThat(user.getFailedLoginAttempts()).isEqualTo(THREADS * ATTEMPTS_PER_THREAD);
+        assertThat(user.getAccountLocked()).isTrue();
+        assertThat(user.getAccountLockedUntil()).isNotNull();
+    }
+
+    @Test
+    void concurrentFailed2FAAttemptsLockOnceAndSendASingleUnlockEmail() throws Exception {
+        runConcurrently(() -> userService.increment2FAAttempts(EMAIL));
+
+        User user = userRepository.findByEmail(EMAIL).orElseThrow();
+        assertThat(user.getFailed2FAAttempts()).isEqualTo(THREADS * ATTEMPTS_PER_THREAD);
+        assertThat(user.getAccountLocked()).isTrue();
+        assertThat(user.getUnlockTokenHash()).hasSize(TokenDigest.LENGTH);
+        verify(emailService, times(1)).sendUnlockEmail(eq(EMAIL), anyString());
+    }
+
+    private void runConcurrently(Runnable attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        attempt.run();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
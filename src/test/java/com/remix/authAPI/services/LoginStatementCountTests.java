@@ -0,0 +1,110 @@
+package com.remix.authAPI.services;
+
+import com.remix.authAPI.entity.User;
+import com.remix.authAPI.exception.AuthenticationFailedException;
+import com.remix.authAPI.repositories.UserRepository;
+import com.remix.authAPI.support.EmbeddedPostgresTests;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Nombre de requêtes SQL par issue de connexion : un SELECT, puis au plus un UPDATE ciblé.
+ * Le défi 2FA est en mémoire : une connexion réussie n'écrit pas dans users.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "app.security.two-factor-store=memory"
+})
+class LoginStatementCountTests extends EmbeddedPostgresTests {
+
+    private static final String EMAIL = "login-count@example.com";
+    private static final String PASSWORD = "MotDePasse123!";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TwoFactorChallengeStore twoFactorChallengeStore;
+
+    @MockBean
+    private EmailService emailService;
+
+    // Écarte le nettoyage planifié des sessions, qui fausserait le compte de requêtes
+    @MockBean
+    private SessionService sessionService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        User user = new User();
+        user.setEmail(EMAIL);
+        user.setPasswordHash(passwordEncoder.encode(PASSWORD));
+        user.setIsEmailVerified(true);
+        userRepository.save(user);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void successfulLoginIsASingleSelect() {
+        userService.initiateLogin(EMAIL, PASSWORD);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(twoFactorChallengeStore.find(EMAIL)).isPresent();
+    }
+
+    @Test
+    void badPasswordIsOneSelectAndOneUpdateAndIsCommitted() {
+        assertThatThrownBy(() -> userService.initiateLogin(EMAIL, "mauvais"))
+            .isInstanceOf(AuthenticationFailedException.class);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(userRepository.findByEmail(EMAIL).orElseThrow().getFailedLoginAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void lockedAccountIsASingleSelect() {
+        User user = userRepository.findByEmail(EMAIL).orElseThrow();
+        user.setAccountLocked(true);
+        user.setAccountLockedUntil(LocalDateTime.now().plusHours(1));
+        userRepository.save(user);
+        statistics.clear();
+
+        assertThatThrownBy(() -> userService.initiateLogin(EMAIL, PASSWORD))
+            .isInstanceOf(AuthenticationFailedException.class);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void unknownEmailIsASingleSelect() {
+        assertThatThrownBy(() -> userService.initiateLogin("inconnu@example.com", PASSWORD))
+            .isInstanceOf(AuthenticationFailedException.class);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,39 @@
+package com.remix.authAPI.services;
+
+import com.remix.authAPI.repositories.SessionRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SessionExpiryEngineTests {
+
+    @Test
+    void dueSessionsAreDeletedWithTheWriteBehindLagAdjustedCutoff() throws InterruptedException {
+        SessionRepository sessionRepository = mock(SessionRepository.class);
+        SessionActivityBuffer activityBuffer = mock(SessionActivityBuffer.class);
+        when(activityBuffer.getMaxPersistedLag()).thenReturn(Duration.ofSeconds(65));
+        SessionExpiryEngine engine = new SessionExpiryEngine(sessionRepository, activityBuffer, true, 1, 64, 3, 200);
+
+        engine.track(42L, LocalDateTime.now().minusSeconds(1));
+        Thread.sleep(5);
+
+        LocalDateTime before = LocalDateTime.now();
+        engine.expireDue();
+        LocalDateTime after = LocalDateTime.now();
+
+        // Une prolongation d'une autre instance peut être absente de expires_at pendant ce délai
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(sessionRepository).deleteExpiredByIds(eq(List.of(42L)), cutoff.capture());
+        assertThat(cutoff.getValue()).isBetween(before.minusSeconds(65), after.minusSeconds(65));
+        assertThat(engine.isTracked(42L)).isFalse();
+    }
+}
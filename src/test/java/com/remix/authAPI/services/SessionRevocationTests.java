@@ -0,0 +1,136 @@
+package com.remix.authAPI.services;
+
+import com.remix.authAPI.entity.User;
+import com.remix.authAPI.repositories.SessionRepository;
+import com.remix.authAPI.repositories.UserRepository;
+import com.remix.authAPI.support.EmbeddedPostgresTests;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Révocations ensemblistes : nombre de sessions supprimées et invalidation immédiate,
+ * y compris pour les sessions présentes dans le cache mémoire. Écriture différée active,
+ * chaque validation en attente d'écriture (granularité nulle), sans vidage planifié pendant les tests.
+ */
+@SpringBootTest(properties = {
+    "app.session.write-behind.enabled=true",
+    "app.session.write-behind.granularity-seconds=0",
+    "app.session.write-behind.flush-interval-ms=3600000",
+    "app.session.cleanup-interval-minutes=3600"
+})
+class SessionRevocationTests extends EmbeddedPostgresTests {
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SessionCache sessionCache;
+
+    @Autowired
+    private SessionActivityBuffer activityBuffer;
+
+    @Autowired
+    private SessionExpiryEngine expiryEngine;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long[] userIds;
+    private String[] tokens;
+
+    @BeforeEach
+    void setUp() {
+        sessionRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        sessionCache.clear();
+
+        userIds = new Long[3];
+        tokens = new String[3];
+        for (int i = 0; i < 3; i++) {
+            User user = new User();
+            user.setEmail("revocation-" + i + "@example.com");
+            user.setPasswordHash("non-utilisé");
+            userIds[i] = userRepository.save(user).getId();
+            tokens[i] = sessionService.createSession(userIds[i]).getToken();
+            // Session mise en cache par la validation
+            assertThat(sessionService.validateAndUpdateSession(tokens[i])).isTrue();
+        }
+    }
+
+    @Test
+    void revokingUsersDeletesTheirSessionsAndInvalidatesCachedTokens() {
+        int revoked = sessionService.revokeUsersSessions(List.of(userIds[0], userIds[1], userIds[0]));
+
+        assertThat(revoked).isEqualTo(2);
+        assertThat(sessionService.validateAndUpdateSession(tokens[0])).isFalse();
+        assertThat(sessionService.validateAndUpdateSession(tokens[1])).isFalse();
+        assertThat(sessionService.validateAndUpdateSession(tokens[2])).isTrue();
+        assertThat(sessionRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void revokingByCreationDateDeletesOlderSessionsOnly() {
+        assertThat(sessionService.revokeSessionsCreatedBefore(LocalDateTime.now().minusHours(1))).isZero();
+
+        assertThat(sessionService.revokeSessionsCreatedBefore(LocalDateTime.now().plusSeconds(1))).isEqualTo(3);
+        for (String token : tokens) {
+            assertThat(sessionService.validateAndUpdateSession(token)).isFalse();
+        }
+    }
+
+    @Test
+    void newSessionReplacesThePreviousOneOfTheUser() {
+        String replacement = sessionService.createSession(userIds[0]).getToken();
+
+        assertThat(sessionService.validateAndUpdateSession(tokens[0])).isFalse();
+        assertThat(sessionService.validateAndUpdateSession(replacement)).isTrue();
+        assertThat(sessionService.revokeUserSessions(userIds[0])).isEqualTo(1);
+    }
+
+    @Test
+    void rolledBackRevocationKeepsInMemoryState() {
+        Long sessionId = sessionRepository.findByToken(tokens[0]).orElseThrow().getId();
+        assertThat(activityBuffer.pendingExpiresAt(sessionId)).isPresent();
+        int tracked = expiryEngine.getTrackedCount();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertThat(sessionService.revokeUserSessions(userIds[0])).isEqualTo(1);
+            assertThat(sessionService.revokeSessionsCreatedBefore(LocalDateTime.now().plusSeconds(1))).isEqualTo(2);
+            status.setRollbackOnly();
+        });
+
+        // Ni prolongation en attente, ni échéance, ni entrée de cache perdues
+        assertThat(activityBuffer.pendingExpiresAt(sessionId)).isPresent();
+        assertThat(expiryEngine.getTrackedCount()).isEqualTo(tracked);
+        assertThat(sessionCache.get(tokens[0])).isPresent();
+        for (String token : tokens) {
+            assertThat(sessionService.validateAndUpdateSession(token)).isTrue();
+        }
+    }
+
+    @Test
+    void rolledBackReplacementKeepsThePreviousSession() {
+        transactionTemplate.executeWithoutResult(status -> {
+            sessionService.createSession(userIds[0]);
+            status.setRollbackOnly();
+        });
+
+        assertThat(sessionCache.get(tokens[0])).isPresent();
+        assertThat(sessionService.validateAndUpdateSession(tokens[0])).isTrue();
+        assertThat(sessionRepository.count()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,86 @@
+package com.remix.authAPI.services;
+
+import com.remix.authAPI.support.EmbeddedPostgresTests;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mode signé : émission, validation, renouvellement et révocation, sans ligne de session en base
+ * (seules les révocations sont écrites, pour les autres instances).
+ * {@code refresh-after-seconds=0} : chaque validation renouvelle le token.
+ */
+@SpringBootTest(properties = {
+    "app.session.token-mode=signed",
+    "app.session.signing.keys=test:MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY=",
+    "app.session.signing.active-key-id=test",
+    "app.session.signed.refresh-after-seconds=0"
+})
+class SignedSessionTests extends EmbeddedPostgresTests {
+
+    private static final Long USER_ID = 42L;
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private SignedSessionTokenService signedTokenService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void freshTokenValidatesRefreshesAndIsRevoked() {
+        // Répété : l'iat tronqué à la milliseconde ne doit jamais tomber sous la coupure de la même connexion
+        for (int i = 0; i < 50; i++) {
+            String token = sessionService.createSession(USER_ID).getToken();
+
+            SessionService.SessionValidation validation = sessionService.validateSession(token);
+            assertThat(validation.valid()).isTrue();
+            assertThat(validation.refreshedToken()).isNotNull();
+            assertThat(sessionService.validateSession(validation.refreshedToken()).valid()).isTrue();
+        }
+    }
+
+    @Test
+    void newLoginAndRevocationInvalidatePreviousTokens() throws InterruptedException {
+        String first = sessionService.createSession(USER_ID).getToken();
+        Thread.sleep(2);
+        String second = sessionService.createSession(USER_ID).getToken();
+
+        assertThat(sessionService.validateSession(first).valid()).isFalse();
+        assertThat(sessionService.validateSession(second).valid()).isTrue();
+
+        Thread.sleep(2);
+        sessionService.revokeUserSessions(USER_ID);
+        assertThat(sessionService.validateSession(second).valid()).isFalse();
+
+        Thread.sleep(2);
+        assertThat(sessionService.validateAndUpdateSession(sessionService.createSession(USER_ID).getToken())).isTrue();
+    }
+
+    @Test
+    void revocationsReachOtherInstancesThroughTheDatabase() throws InterruptedException {
+        String loggedOut = sessionService.createSession(43L).getToken();
+        String revokedUser = sessionService.createSession(44L).getToken();
+        Thread.sleep(2);
+        sessionService.invalidateSession(loggedOut);
+        sessionService.revokeUserSessions(44L);
+
+        // Autre instance (ou redémarrage) : liste vide jusqu'à la relecture de la table
+        SessionRevocationList otherInstance = new SessionRevocationList(jdbcTemplate, "signed");
+        SignedSessionTokenService.Claims loggedOutClaims = signedTokenService.verify(loggedOut, Instant.now()).orElseThrow();
+        SignedSessionTokenService.Claims revokedUserClaims = signedTokenService.verify(revokedUser, Instant.now()).orElseThrow();
+        assertThat(otherInstance.isRevoked(loggedOutClaims)).isFalse();
+
+        otherInstance.refresh();
+
+        assertThat(otherInstance.isRevoked(loggedOutClaims)).isTrue();
+        assertThat(otherInstance.isRevoked(revokedUserClaims)).isTrue();
+    }
+}
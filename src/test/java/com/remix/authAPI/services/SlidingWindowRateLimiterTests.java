@@ -0,0 +1,44 @@
+package com.remix.authAPI.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlidingWindowRateLimiterTests {
+
+    private static final long WINDOW = 60_000;
+
+    @Test
+    void newKeysShareTheOverflowLimitWhenTableIsFull() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(3, WINDOW, 10);
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire("tracked-" + i, 0)).isZero();
+        }
+
+        // Clés toutes différentes : seules les 3 premières passent, ensemble
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("spoofed-" + i, 0)).isZero();
+        }
+        assertThat(limiter.tryAcquire("spoofed-3", 0)).isPositive();
+        assertThat(limiter.getTrackedKeys()).isEqualTo(10);
+        assertThat(limiter.getOverflowCount()).isEqualTo(4);
+
+        // Les clés déjà suivies gardent leur propre compteur
+        assertThat(limiter.tryAcquire("tracked-0", 0)).isZero();
+    }
+
+    @Test
+    void evictionFreesSlotsForNewKeys() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(3, WINDOW, 10);
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("idle-" + i, 0);
+        }
+
+        limiter.evictIdle(3 * WINDOW);
+
+        assertThat(limiter.getTrackedKeys()).isZero();
+        assertThat(limiter.tryAcquire("fresh", 3 * WINDOW)).isZero();
+        assertThat(limiter.getTrackedKeys()).isEqualTo(1);
+        assertThat(limiter.getOverflowCount()).isZero();
+    }
+}
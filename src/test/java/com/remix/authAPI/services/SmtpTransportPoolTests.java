@@ -0,0 +1,70 @@
+package com.remix.authAPI.services;
+
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.net.SocketException;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SmtpTransportPoolTests {
+
+    private Session session;
+    private Transport transport;
+    private SmtpTransportPool pool;
+    private MimeMessage message;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JavaMailSenderImpl mailSender = mock(JavaMailSenderImpl.class);
+        session = mock(Session.class);
+        transport = mock(Transport.class);
+        when(mailSender.getSession()).thenReturn(session);
+        when(mailSender.getProtocol()).thenReturn("smtp");
+        when(session.getTransport(anyString())).thenReturn(transport);
+        pool = new SmtpTransportPool(mailSender, true, 1, 30);
+
+        message = new MimeMessage(Session.getInstance(new Properties()));
+        message.setRecipient(MimeMessage.RecipientType.TO, new InternetAddress("alice@example.com"));
+        message.setText("123456");
+    }
+
+    @Test
+    void refusedRecipientIsNotRetried() throws Exception {
+        when(transport.isConnected()).thenReturn(true);
+        doThrow(new SendFailedException("550 destinataire inconnu")).when(transport).sendMessage(any(), any(Address[].class));
+
+        assertThatThrownBy(() -> pool.send(message)).isInstanceOf(SendFailedException.class);
+
+        verify(session, times(1)).getTransport(anyString());
+        verify(transport, times(1)).sendMessage(any(), any(Address[].class));
+    }
+
+    @Test
+    void closedConnectionIsRetriedOnceOnANewConnection() throws Exception {
+        doThrow(new MessagingException("Can't send command to SMTP host", new SocketException("Connection reset")))
+            .doNothing()
+            .when(transport).sendMessage(any(), any(Address[].class));
+
+        pool.send(message);
+
+        verify(session, times(2)).getTransport(anyString());
+        verify(transport, times(2)).sendMessage(any(), any(Address[].class));
+    }
+}
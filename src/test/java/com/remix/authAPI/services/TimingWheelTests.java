@@ -0,0 +1,62 @@
+package com.remix.authAPI.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTests {
+
+    private static final long TICK = 100;
+
+    @Test
+    void everyEntryIsReturnedOnceAtItsDeadlineTick() {
+        // 3 niveaux de 8 cases : horizon de 512 ticks, les échéances au-delà sont replacées
+        TimingWheel wheel = new TimingWheel(TICK, 8, 3, 0);
+        Random random = new Random(42);
+        Map<Long, Long> deadlines = new HashMap<>();
+        for (long id = 0; id < 2_000; id++) {
+            long deadline = random.nextInt(1_000) * TICK + random.nextInt((int) TICK);
+            deadlines.put(id, deadline);
+            wheel.add(id, deadline);
+        }
+
+        Map<Long, Long> returnedAt = new HashMap<>();
+        for (long now = 0; now <= 1_001 * TICK; now += TICK) {
+            for (Long id : wheel.advance(now)) {
+                assertThat(returnedAt.put(id, now)).isNull();
+            }
+        }
+
+        assertThat(returnedAt).hasSameSizeAs(deadlines);
+        assertThat(wheel.size()).isZero();
+        deadlines.forEach((id, deadline) ->
+            assertThat(returnedAt.get(id)).isBetween(deadline, deadline + TICK));
+    }
+
+    @Test
+    void pastDeadlineIsDueOnNextTick() {
+        TimingWheel wheel = new TimingWheel(TICK, 8, 2, 10 * TICK);
+        wheel.add(1, 0);
+
+        assertThat(wheel.advance(10 * TICK)).isEmpty();
+        assertThat(wheel.advance(11 * TICK)).containsExactly(1L);
+    }
+
+    @Test
+    void largeJumpReturnsEverythingDue() {
+        TimingWheel wheel = new TimingWheel(TICK, 4, 2, 0);
+        wheel.add(1, 3 * TICK);
+        wheel.add(2, 15 * TICK);
+        wheel.add(3, 40 * TICK);
+
+        List<Long> due = wheel.advance(20 * TICK);
+
+        assertThat(due).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(wheel.advance(40 * TICK)).containsExactly(3L);
+    }
+}
@@ -0,0 +1,128 @@
+package com.remix.authAPI.services;
+
+import com.remix.authAPI.dto.ImportReport;
+import com.remix.authAPI.entity.User;
+import com.remix.authAPI.repositories.UserRepository;
+import com.remix.authAPI.support.EmbeddedPostgresTests;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = {
+    "app.security.hashing.strength=4",
+    "app.users.import.batch-size=3"
+})
+class UserImportServiceTests extends EmbeddedPostgresTests {
+
+    private static final String PRE_HASHED = new BCryptPasswordEncoder(4).encode("Legacy123!");
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserService userService;
+
+    @MockBean
+    private EmailService emailService;
+
+    // Écarte le nettoyage planifié des sessions
+    @MockBean
+    private SessionService sessionService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        User existing = new User();
+        existing.setEmail("existing@example.com");
+        existing.setPasswordHash(PRE_HASHED);
+        userRepository.save(existing);
+    }
+
+    @Test
+    void ndjsonImportSkipsDuplicatesAndInvalidLines() throws Exception {
+        String ndjson = String.join("\n",
+            "{\"email\":\"alice@example.com\",\"password\":\"MotDePasse123!\",\"emailVerified\":true}",
+            "{\"email\":\"existing@example.com\",\"password\":\"MotDePasse123!\"}",
+            "{\"email\":\"bob@example.com\",\"passwordHash\":\"" + PRE_HASHED + "\",\"emailVerified\":true}",
+            "{\"email\":\"alice@example.com\",\"password\":\"Autre123!\"}",
+            "{\"email\":\"carol@example.com\"}",
+            "{pas du json");
+
+        ImportReport report = userImportService.importUsers(stream(ndjson),
+            UserImportService.Format.NDJSON, UserImportService.VerificationEmails.NONE);
+
+        assertThat(report.read()).isEqualTo(6);
+        assertThat(report.imported()).isEqualTo(2);
+        assertThat(report.duplicates()).isEqualTo(2);
+        assertThat(report.invalid()).isEqualTo(2);
+        assertThat(report.errors()).hasSize(2);
+
+        User alice = userRepository.findByEmail("alice@example.com").orElseThrow();
+        assertThat(passwordEncoder.matches("MotDePasse123!", alice.getPasswordHash())).isTrue();
+        assertThat(alice.getIsEmailVerified()).isTrue();
+        assertThat(userRepository.findByEmail("bob@example.com").orElseThrow().getPasswordHash()).isEqualTo(PRE_HASHED);
+        verify(emailService, never()).sendVerificationEmail(any(), any());
+    }
+
+    @Test
+    void csvImportSendsVerificationToUnverifiedAccountsOnly() throws Exception {
+        String csv = String.join("\n",
+            "email,password,email_verified",
+            "\"dave@example.com\",\"Mot,De\"\"Passe\",false",
+            "erin@example.com,MotDePasse123!,true");
+
+        ImportReport report = userImportService.importUsers(stream(csv),
+            UserImportService.Format.CSV, UserImportService.VerificationEmails.SEND);
+
+        assertThat(report.imported()).isEqualTo(2);
+        User dave = userRepository.findByEmail("dave@example.com").orElseThrow();
+        assertThat(passwordEncoder.matches("Mot,De\"Passe", dave.getPasswordHash())).isTrue();
+        assertThat(dave.getEmailVerificationTokenHash()).hasSize(TokenDigest.LENGTH);
+        verify(emailService).sendVerificationEmail(eq("dave@example.com"), startsWith("http"));
+        verify(emailService, never()).sendVerificationEmail(eq("erin@example.com"), startsWith("http"));
+    }
+
+    @Test
+    void unverifiedAccountImportedWithoutEmailCanRequestALink() throws Exception {
+        String ndjson = "{\"email\":\"frank@example.com\",\"password\":\"MotDePasse123!\"}";
+
+        userImportService.importUsers(stream(ndjson),
+            UserImportService.Format.NDJSON, UserImportService.VerificationEmails.NONE);
+
+        // Aucun token inutilisable stocké : le lien est émis à la demande
+        assertThat(userRepository.findByEmail("frank@example.com").orElseThrow().getEmailVerificationTokenHash()).isNull();
+
+        userService.resendVerificationEmail("frank@example.com");
+        userService.resendVerificationEmail("existing-verified@example.com");
+
+        User frank = userRepository.findByEmail("frank@example.com").orElseThrow();
+        assertThat(frank.getEmailVerificationTokenHash()).hasSize(TokenDigest.LENGTH);
+        assertThat(frank.getEmailVerificationExpiry()).isNotNull();
+        verify(emailService).sendVerificationEmail(eq("frank@example.com"), startsWith("http"));
+        verify(emailService, never()).sendVerificationEmail(eq("existing-verified@example.com"), any());
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,33 @@
+package com.remix.authAPI.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Base des tests d'intégration : un PostgreSQL embarqué (binaires réels, sans Docker)
+ * partagé par toute la JVM de test, pour que les requêtes natives soient exécutées telles quelles.
+ */
+public abstract class EmbeddedPostgresTests {
+
+    protected static final EmbeddedPostgres POSTGRES = start();
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Impossible de démarrer PostgreSQL embarqué", e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+}